@@ -0,0 +1,132 @@
+package com.example.cashcard;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Boots the real application against a throwaway Postgres container, seeded with one owner's cards,
+// together with a signing key that the resource server trusts.
+class BenchmarkApplication {
+    static final String OWNER = "bench";
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+    private final Map<String, Object> overrides = new HashMap<>();
+    private ConfigurableApplicationContext context;
+    private List<Long> ids;
+    private String token;
+
+    void start(int cards, String... profiles) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        Path publicKey = Files.createTempFile("cashcard-bench", ".pub");
+        Files.writeString(publicKey, pem(keyPair));
+
+        postgres.start();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.security.oauth2.resourceserver.jwt.public-key-location", "file:" + publicKey);
+        // Every benchmark drives a single owner flat out, which is exactly what the limiter and the shedder refuse.
+        properties.put("cashcard.rate-limit.enabled", "false");
+        properties.put("cashcard.load-shedding.enabled", "false");
+        properties.putAll(overrides);
+        context = new SpringApplicationBuilder(CashCardApplication.class)
+                .properties(properties)
+                .profiles(profiles)
+                .run();
+
+        ids = seed(cards);
+        token = createToken(keyPair);
+    }
+
+    // Must be called before start.
+    void property(String name, Object value) {
+        overrides.put(name, value);
+    }
+
+    void stop() {
+        if (context != null) {
+            context.close();
+        }
+        postgres.stop();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    <T> T getBean(String name, Class<T> type) {
+        return context.getBean(name, type);
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    List<Long> ids() {
+        return ids;
+    }
+
+    String token() {
+        return token;
+    }
+
+    private List<Long> seed(int cards) {
+        CashCardRepository repository = context.getBean(CashCardRepository.class);
+        List<CashCard> batch = new ArrayList<>();
+        List<Long> seeded = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            batch.add(new CashCard(null, (i % 1000) * 100L, OWNER));
+            if (batch.size() == 1000 || i == cards - 1) {
+                repository.saveAll(batch).forEach(cashCard -> seeded.add(cashCard.getId()));
+                batch.clear();
+            }
+        }
+        return seeded;
+    }
+
+    static String createToken(KeyPair keyPair) {
+        RSAKey key = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(100000))
+                .subject(OWNER)
+                .issuer("http://localhost:9000")
+                .audience(List.of("cashcard-client"))
+                .claim("scp", List.of("cashcard:read", "cashcard:write"))
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    static String pem(KeyPair keyPair) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(keyPair.getPublic().getEncoded());
+        return "-----BEGIN PUBLIC KEY-----\n" + body + "\n-----END PUBLIC KEY-----\n";
+    }
+}
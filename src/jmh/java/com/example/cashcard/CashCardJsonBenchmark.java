@@ -0,0 +1,56 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class CashCardJsonBenchmark {
+    private static final TypeReference<List<CashCard>> CASH_CARD_LIST = new TypeReference<>() {
+    };
+
+    private ObjectMapper objectMapper;
+    private CashCard cashCard;
+    private List<CashCard> page;
+    private byte[] cashCardJson;
+    private byte[] pageJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cashCard = new CashCard(99L, 12345, "sarah1");
+        page = new ArrayList<>();
+        for (long id = 0; id < 100; id++) {
+            page.add(new CashCard(id, id * 150, "sarah1"));
+        }
+        cashCardJson = objectMapper.writeValueAsBytes(cashCard);
+        pageJson = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeCashCard() throws Exception {
+        return objectMapper.writeValueAsBytes(cashCard);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public CashCard deserializeCashCard() throws Exception {
+        return objectMapper.readValue(cashCardJson, CashCard.class);
+    }
+
+    @Benchmark
+    public List<CashCard> deserializePage() throws Exception {
+        return objectMapper.readValue(pageJson, CASH_CARD_LIST);
+    }
+}
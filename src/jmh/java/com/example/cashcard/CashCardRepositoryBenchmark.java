@@ -0,0 +1,59 @@
+package com.example.cashcard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+@State(Scope.Benchmark)
+public class CashCardRepositoryBenchmark {
+    @Param({"10000"})
+    public int cards;
+
+    private final BenchmarkApplication application = new BenchmarkApplication();
+    private CashCardRepository repository;
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Every seeded card fits in the cache, so with it on findByIdAndOwner would only measure a Caffeine hit.
+        application.property("spring.cache.type", "none");
+        application.start(cards);
+        repository = application.getBean(CashCardRepository.class);
+        ids = application.ids();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public Optional<CashCard> findByIdAndOwner() {
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return repository.findByIdAndOwner(id, BenchmarkApplication.OWNER);
+    }
+
+    @Benchmark
+    public List<CashCard> findByOwnerDeepPage() {
+        int lastPage = cards / 20 - 1;
+        return repository.findByOwner(
+                BenchmarkApplication.OWNER,
+                PageRequest.of(lastPage, 20, Sort.by(Sort.Direction.ASC, "amount"))
+        ).getContent();
+    }
+
+    @Benchmark
+    public Slice<CashCard> findByOwnerFirstSlice() {
+        return repository.findByOwnerOrderByAmountAscIdAsc(BenchmarkApplication.OWNER, PageRequest.ofSize(20));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.cashcard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Compares the default platform-thread mode with the virtual-threads profile under a burst of concurrent clients.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Threads(256)
+public class HttpLoadBenchmark {
+    @Param({"default", "virtual-threads"})
+    public String profile;
+
+    private final BenchmarkApplication application = new BenchmarkApplication();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private List<Long> ids;
+    private String baseUri;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        application.start(1000, profile);
+        ids = application.ids();
+        baseUri = "http://localhost:" + application.port() + "/cashcards";
+        authorization = "Bearer " + application.token();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public int findById() throws Exception {
+        return send(baseUri + "/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public int findAll() throws Exception {
+        return send(baseUri + "?page=0&size=20");
+    }
+
+    private int send(String uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.cashcard;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Owner-scoped lookups against cash_card laid out as before V9 (one heap, owner indexes) and as after it (hash
+// partitioned on owner), each loaded with the same rows spread over many owners. Sampled so the JMH report carries
+// p99 next to the mean. Runs the SQL directly so the comparison is only the table layout.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class PartitioningBenchmark {
+    private static final String PLAIN = """
+            CREATE TABLE cash_card (
+                id BIGINT NOT NULL,
+                amount BIGINT NOT NULL,
+                owner VARCHAR(255),
+                version BIGINT NOT NULL DEFAULT 0,
+                CONSTRAINT pk_cash_card PRIMARY KEY (id)
+            )
+            """;
+
+    private static final String PARTITIONED = """
+            CREATE TABLE cash_card (
+                id BIGINT NOT NULL,
+                amount BIGINT NOT NULL,
+                owner VARCHAR(255) NOT NULL,
+                version BIGINT NOT NULL DEFAULT 0,
+                CONSTRAINT pk_cash_card PRIMARY KEY (owner, id)
+            ) PARTITION BY HASH (owner)
+            """;
+
+    @Param({"plain", "partitioned"})
+    public String layout;
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"100000"})
+    public int owners;
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=1GB", "-c", "max_wal_size=4GB");
+    private HikariDataSource dataSource;
+
+    @Setup
+    public void setUp() throws SQLException {
+        postgres.start();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.setMaximumPoolSize(8);
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            if (layout.equals("partitioned")) {
+                statement.execute(PARTITIONED);
+                for (int remainder = 0; remainder < 16; remainder++) {
+                    statement.execute("CREATE TABLE cash_card_p" + remainder
+                            + " PARTITION OF cash_card FOR VALUES WITH (MODULUS 16, REMAINDER " + remainder + ")");
+                }
+            } else {
+                statement.execute(PLAIN);
+            }
+            statement.execute("INSERT INTO cash_card (id, amount, owner) "
+                    + "SELECT g, (g * 7919) % 100000, 'owner-' || (g % " + owners + ") "
+                    + "FROM generate_series(1, " + rows + ") g");
+            if (layout.equals("plain")) {
+                statement.execute("CREATE INDEX idx_cash_card_owner_id ON cash_card (owner, id)");
+            }
+            statement.execute("CREATE INDEX idx_cash_card_owner_amount_id ON cash_card (owner, amount, id)");
+            statement.execute("VACUUM ANALYZE cash_card");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long findByIdAndOwner() throws SQLException {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1L);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, amount, owner, version FROM cash_card WHERE id = ? AND owner = ?")) {
+            statement.setLong(1, id);
+            statement.setString(2, "owner-" + id % owners);
+            return drain(statement);
+        }
+    }
+
+    @Benchmark
+    public long findByOwnerFirstPage() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, amount, owner, version FROM cash_card WHERE owner = ? ORDER BY amount, id LIMIT 20")) {
+            statement.setString(1, "owner-" + ThreadLocalRandom.current().nextInt(owners));
+            return drain(statement);
+        }
+    }
+
+    @Benchmark
+    public long updateAmountByIdAndOwner() throws SQLException {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1L);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE cash_card SET amount = amount + 1, version = version + 1 WHERE id = ? AND owner = ?")) {
+            statement.setLong(1, id);
+            statement.setString(2, "owner-" + id % owners);
+            return statement.executeUpdate();
+        }
+    }
+
+    private static long drain(PreparedStatement statement) throws SQLException {
+        long sum = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                sum += resultSet.getLong(1);
+            }
+        }
+        return sum;
+    }
+}
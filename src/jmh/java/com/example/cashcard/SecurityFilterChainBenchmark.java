@@ -0,0 +1,41 @@
+package com.example.cashcard;
+
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@State(Scope.Benchmark)
+public class SecurityFilterChainBenchmark {
+    private final BenchmarkApplication application = new BenchmarkApplication();
+    private Filter springSecurityFilterChain;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        application.start(1);
+        springSecurityFilterChain = application.getBean("springSecurityFilterChain", Filter.class);
+        authorization = "Bearer " + application.token();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public int decodeAndAuthorize() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cashcards/1");
+        request.setServletPath("/cashcards/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
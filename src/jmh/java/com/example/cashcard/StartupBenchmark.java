@@ -0,0 +1,146 @@
+package com.example.cashcard;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time from launching a fresh JVM to the first 200 from GET /cashcards, for the default launch, the fast-start
+// profile, and the fast-start profile with its AOT bean graph and CDS archive. Every iteration is a cold start of a
+// separate process; the database is shared and already migrated.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "fast-start", "fast-start-aot-cds"})
+    public String launch;
+
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Path publicKey;
+    private String authorization;
+    private int port;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = Files.createTempFile("cashcard-startup", ".pub");
+        Files.writeString(publicKey, BenchmarkApplication.pem(keyPair));
+        authorization = "Bearer " + BenchmarkApplication.createToken(keyPair);
+
+        postgres.start();
+        // Mirrors the deploy-time migration run that fast-start instances rely on.
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @Setup(Level.Iteration)
+    public void choosePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws IOException {
+        postgres.stop();
+        Files.deleteIfExists(publicKey);
+    }
+
+    @Benchmark
+    public int timeToFirstOk() throws Exception {
+        process = new ProcessBuilder(command())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/cashcards"))
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException notListeningYet) {
+                // Keep polling until the server accepts connections.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No 200 from /cashcards within " + STARTUP_TIMEOUT);
+    }
+
+    private List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (launch.equals("fast-start-aot-cds")) {
+            command.add("-XX:SharedArchiveFile=" + System.getProperty("cashcard.startup.cds-archive"));
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("cashcard.startup.classpath"));
+        command.add(CashCardApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=0");
+        command.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+        command.add("--spring.datasource.username=" + postgres.getUsername());
+        command.add("--spring.datasource.password=" + postgres.getPassword());
+        command.add("--spring.security.oauth2.resourceserver.jwt.public-key-location=file:" + publicKey);
+        if (!launch.equals("default")) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+        return command;
+    }
+}
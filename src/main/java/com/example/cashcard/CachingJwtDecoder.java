@@ -0,0 +1,88 @@
+package com.example.cashcard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Remembers tokens that already passed signature and claim validation, keyed by a SHA-256 of the raw token
+// so the bearer credential itself is never retained. An entry never outlives the token's own expiry.
+class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> validated;
+    private final Clock clock;
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maxTtl) {
+        this(delegate, maximumSize, maxTtl, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maxTtl, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.validated = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maxTtl, clock))
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = validated.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        validated.put(key, jwt);
+        return jwt;
+    }
+
+    private boolean isExpired(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && !clock.instant().isBefore(expiresAt);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TokenExpiry(Duration maxTtl, Clock clock) implements Expiry<String, Jwt> {
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Duration ttl = maxTtl;
+            if (jwt.getExpiresAt() != null) {
+                Duration remaining = Duration.between(clock.instant(), jwt.getExpiresAt());
+                if (remaining.compareTo(ttl) < 0) {
+                    ttl = remaining;
+                }
+            }
+            return Math.max(0, ttl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
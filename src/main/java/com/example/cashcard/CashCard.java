@@ -1,22 +1,43 @@
 package com.example.cashcard;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
 @Table(name = "cash_card")
 public class CashCard {
+    static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cash_card_seq")
+    @SequenceGenerator(name = "cash_card_seq", sequenceName = "cash_card_seq", allocationSize = CashCard.ID_ALLOCATION_SIZE)
     @Column(nullable = false)
     private Long id;
 
-    private Double amount;
+    @Column(nullable = false)
+    @JsonSerialize(using = MinorUnits.Serializer.class)
+    @JsonDeserialize(using = MinorUnits.Deserializer.class)
+    private long amount;
+
+    // Hash partition key of cash_card: Hibernate adds it to the WHERE clause of entity updates and deletes, so they
+    // are pruned to one partition like every repository query.
+    @PartitionKey
+    @Column(nullable = false)
     private String owner;
 
+    // Exposed to clients as the ETag rather than in the body.
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private long version;
+
     public CashCard() {
     }
 
-    public CashCard(Long id, Double amount, String owner) {
+    public CashCard(Long id, long amount, String owner) {
         this.id = id;
         this.amount = amount;
         this.owner = owner;
@@ -26,11 +47,11 @@ public class CashCard {
         return id;
     }
 
-    public Double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
@@ -42,12 +63,17 @@ public class CashCard {
         this.owner = owner;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "CashCard{" +
                 "id=" + id +
                 ", amount=" + amount +
                 ", owner='" + owner + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
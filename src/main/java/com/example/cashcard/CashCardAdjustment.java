@@ -0,0 +1,18 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// A signed change to a card's balance: positive credits, negative debits.
+public record CashCardAdjustment(
+        @JsonSerialize(using = MinorUnits.Serializer.class)
+        @JsonDeserialize(using = MinorUnits.Deserializer.class)
+        Long delta
+) {
+    // Largest credit or debit accepted in one adjustment, in minor units.
+    static final long MAX_DELTA = 100_000_000_000L;
+
+    static boolean isWithinBounds(Long delta) {
+        return delta != null && delta >= -MAX_DELTA && delta <= MAX_DELTA;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.cashcard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces concurrent adjustments of the same card. Each card gets a lane; whichever caller finds the lane idle
+ * applies the next batch queued on it through {@link CashCardService#adjustAll}, so a burst of N adjustments costs a
+ * handful of transactions instead of N transactions serialised on the row lock. A caller applies one batch at a time
+ * and then hands the lane to the caller at the head of the queue, so under sustained load no request keeps draining
+ * on behalf of later arrivals. When disabled, every adjustment is its own single-statement update.
+ */
+@Component
+public class CashCardAdjustmentCombiner {
+    private static final long HAND_OVER_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final CashCardService cashCardService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    CashCardAdjustmentCombiner(
+            CashCardService cashCardService,
+            @Value("${cashcard.adjustments.coalescing.enabled}") boolean enabled,
+            @Value("${cashcard.adjustments.coalescing.max-batch-size}") int maxBatchSize
+    ) {
+        this.cashCardService = cashCardService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CashCardAdjustmentResult adjust(String owner, Long id, long delta) {
+        if (!enabled) {
+            return cashCardService.adjust(id, owner, delta);
+        }
+
+        Object key = CashCardCacheConfig.key(owner, id);
+        Lane lane = lanes.computeIfAbsent(key, k -> new Lane());
+        Pending pending = new Pending(delta, Thread.currentThread());
+        lane.queue.add(pending);
+        while (!pending.result.isDone()) {
+            if (lane.draining.compareAndSet(false, true)) {
+                try {
+                    drainBatch(owner, id, lane);
+                } finally {
+                    lane.draining.set(false);
+                }
+                // Hands over to the oldest waiter; anyone arriving after this tries the flag before parking.
+                Pending head = lane.queue.peek();
+                if (head != null) {
+                    LockSupport.unpark(head.thread);
+                }
+            } else {
+                // Bounded, in case a hand-over lands between the failed attempt and the park.
+                LockSupport.parkNanos(this, HAND_OVER_TIMEOUT_NANOS);
+            }
+        }
+        if (lane.queue.isEmpty()) {
+            lanes.remove(key, lane);
+        }
+        return pending.result.join();
+    }
+
+    private void drainBatch(String owner, Long id, Lane lane) {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        Pending next;
+        while (batch.size() < maxBatchSize && (next = lane.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (!batch.isEmpty()) {
+            apply(owner, id, batch);
+        }
+    }
+
+    private void apply(String owner, Long id, List<Pending> batch) {
+        try {
+            List<CashCardAdjustmentResult> results =
+                    cashCardService.adjustAll(id, owner, batch.stream().map(Pending::delta).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+        batch.forEach(pending -> LockSupport.unpark(pending.thread));
+    }
+
+    private static final class Lane {
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private record Pending(long delta, Thread thread, CompletableFuture<CashCardAdjustmentResult> result) {
+        Pending(long delta, Thread thread) {
+            this(delta, thread, new CompletableFuture<>());
+        }
+    }
+}
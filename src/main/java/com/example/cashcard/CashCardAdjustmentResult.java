@@ -0,0 +1,17 @@
+package com.example.cashcard;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of an adjustment: OK with the new balance, NOT_FOUND when the owner has no such card, or CONFLICT when the
+ * debit would take the balance below zero.
+ */
+public record CashCardAdjustmentResult(HttpStatus status, CashCardBalance balance) {
+    static CashCardAdjustmentResult applied(Long id, long amount) {
+        return new CashCardAdjustmentResult(HttpStatus.OK, new CashCardBalance(id, amount));
+    }
+
+    static CashCardAdjustmentResult rejected(HttpStatus status) {
+        return new CashCardAdjustmentResult(status, null);
+    }
+}
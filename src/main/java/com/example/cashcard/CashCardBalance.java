@@ -0,0 +1,6 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public record CashCardBalance(Long id, @JsonSerialize(using = MinorUnits.Serializer.class) long amount) {
+}
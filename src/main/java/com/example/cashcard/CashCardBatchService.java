@@ -0,0 +1,130 @@
+package com.example.cashcard;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class CashCardBatchService {
+    private final CashCardRepository cashCardRepository;
+    private final CashCardSummaryRepository cashCardSummaryRepository;
+    private final CashCardEventRepository cashCardEventRepository;
+    private final Cache cashCardCache;
+
+    CashCardBatchService(
+            CashCardRepository cashCardRepository,
+            CashCardSummaryRepository cashCardSummaryRepository,
+            CashCardEventRepository cashCardEventRepository,
+            CacheManager cacheManager
+    ) {
+        this.cashCardRepository = cashCardRepository;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.cashCardEventRepository = cashCardEventRepository;
+        // Evictions are deferred until the batch transaction commits.
+        this.cashCardCache = new TransactionAwareCacheDecorator(cacheManager.getCache(CashCardCacheConfig.CASH_CARDS));
+    }
+
+    @Transactional
+    public List<CashCardOperationResult> apply(String owner, List<CashCardOperation> operations) {
+        Map<Long, CashCard> owned = findOwned(owner, operations);
+        CashCardOperationResult[] results = new CashCardOperationResult[operations.size()];
+        List<CashCard> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<CashCard> deleted = new ArrayList<>();
+        List<CashCardEvent> events = new ArrayList<>();
+        long totalDelta = 0;
+        long countDelta = 0;
+        boolean changed = false;
+
+        for (int i = 0; i < operations.size(); i++) {
+            CashCardOperation operation = operations.get(i);
+            if (operation == null || operation.type() == null) {
+                results[i] = CashCardOperationResult.of(null, HttpStatus.BAD_REQUEST);
+                continue;
+            }
+
+            switch (operation.type()) {
+                case CREATE -> {
+                    if (operation.amount() == null) {
+                        results[i] = CashCardOperationResult.of(null, HttpStatus.BAD_REQUEST);
+                    } else {
+                        created.add(new CashCard(null, operation.amount(), owner));
+                        createdIndexes.add(i);
+                        totalDelta += operation.amount();
+                        countDelta++;
+                        changed = true;
+                    }
+                }
+                case UPDATE -> {
+                    CashCard cashCard = owned.get(operation.id());
+                    if (cashCard == null) {
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NOT_FOUND);
+                    } else if (operation.amount() == null) {
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.BAD_REQUEST);
+                    } else {
+                        totalDelta += operation.amount() - cashCard.getAmount();
+                        cashCard.setAmount(operation.amount());
+                        events.add(CashCardEvent.updated(owner, cashCard.getId(), operation.amount()));
+                        changed = true;
+                        cashCardCache.evict(CashCardCacheConfig.key(owner, cashCard.getId()));
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NO_CONTENT);
+                    }
+                }
+                case DELETE -> {
+                    CashCard cashCard = owned.remove(operation.id());
+                    if (cashCard == null) {
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NOT_FOUND);
+                    } else {
+                        deleted.add(cashCard);
+                        events.add(CashCardEvent.deleted(owner, cashCard.getId()));
+                        totalDelta -= cashCard.getAmount();
+                        countDelta--;
+                        changed = true;
+                        cashCardCache.evict(CashCardCacheConfig.key(owner, cashCard.getId()));
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NO_CONTENT);
+                    }
+                }
+            }
+        }
+
+        cashCardRepository.saveAll(created);
+        cashCardRepository.deleteAll(deleted);
+        if (changed) {
+            cashCardSummaryRepository.applyDelta(owner, totalDelta, countDelta);
+        }
+        created.forEach(cashCard -> events.add(CashCardEvent.created(cashCard)));
+        cashCardEventRepository.saveAll(events);
+
+        for (int i = 0; i < created.size(); i++) {
+            results[createdIndexes.get(i)] = CashCardOperationResult.of(created.get(i).getId(), HttpStatus.CREATED);
+        }
+        return List.of(results);
+    }
+
+    private Map<Long, CashCard> findOwned(String owner, List<CashCardOperation> operations) {
+        Set<Long> ids = new HashSet<>();
+        for (CashCardOperation operation : operations) {
+            if (operation != null && operation.type() != CashCardOperation.Type.CREATE && operation.id() != null) {
+                ids.add(operation.id());
+            }
+        }
+
+        Map<Long, CashCard> owned = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (CashCard cashCard : cashCardRepository.findByIdInAndOwnerOrderByIdAsc(ids, owner)) {
+                owned.put(cashCard.getId(), cashCard);
+            }
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.cashcard;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CashCardCacheConfig {
+    public static final String CASH_CARDS = "cashCards";
+
+    // Must match the "{#owner, #id}" key expression used on CashCardRepository.
+    static Object key(String owner, Long id) {
+        return List.of(owner, id);
+    }
+}
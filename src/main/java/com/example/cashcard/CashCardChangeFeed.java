@@ -0,0 +1,132 @@
+package com.example.cashcard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves GET /cashcards/changes as a long poll. A request with nothing past its position parks a DeferredResult
+ * per owner, which is completed once the relay has published events for that owner, as reported on every instance
+ * by CashCardChangeListener; no thread is held meanwhile.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CashCardChangeFeed {
+    private final CashCardEventRepository cashCardEventRepository;
+    private final Duration timeout;
+    private final Map<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    CashCardChangeFeed(
+            CashCardEventRepository cashCardEventRepository,
+            @Value("${cashcard.outbox.long-poll-timeout}") Duration timeout
+    ) {
+        this.cashCardEventRepository = cashCardEventRepository;
+        this.timeout = timeout;
+    }
+
+    public DeferredResult<ResponseEntity<CashCardChanges>> poll(String owner, long since, int limit) {
+        CashCardChanges empty = new CashCardChanges(List.of(), since);
+        DeferredResult<ResponseEntity<CashCardChanges>> result =
+                new DeferredResult<>(timeout.toMillis(), () -> ResponseEntity.ok(empty));
+        Waiter waiter = new Waiter(owner, since, limit, result);
+
+        // Registered before the first read, so events published in between still complete this request.
+        // Added inside compute, so a concurrent remove() of the owner's last waiter cannot drop the set under it.
+        waiters.compute(owner, (key, parked) -> {
+            Set<Waiter> set = parked != null ? parked : ConcurrentHashMap.newKeySet();
+            set.add(waiter);
+            return set;
+        });
+        result.onCompletion(() -> remove(waiter));
+        waiter.tryComplete();
+        return result;
+    }
+
+    // Reads each owner's new events once for all of its parked waiters, from the lowest position any of them holds.
+    // A waiter only falls back to its own query when that shared read was cut off before reaching its position.
+    void published(Collection<String> owners) {
+        for (String owner : owners) {
+            Set<Waiter> parked = waiters.get(owner);
+            if (parked == null || parked.isEmpty()) {
+                continue;
+            }
+
+            long since = Long.MAX_VALUE;
+            int limit = 0;
+            for (Waiter waiter : parked) {
+                since = Math.min(since, waiter.since);
+                limit = Math.max(limit, waiter.limit);
+            }
+            List<CashCardEvent> events = cashCardEventRepository
+                    .findByOwnerAndPositionGreaterThanOrderByPositionAsc(owner, since, Limit.of(limit));
+            boolean truncated = events.size() == limit;
+            for (Waiter waiter : parked) {
+                if (!waiter.complete(events) && truncated) {
+                    waiter.tryComplete();
+                }
+            }
+        }
+    }
+
+    void wakeAll() {
+        published(List.copyOf(waiters.keySet()));
+    }
+
+    private void remove(Waiter waiter) {
+        waiters.computeIfPresent(waiter.owner, (owner, parked) -> {
+            parked.remove(waiter);
+            return parked.isEmpty() ? null : parked;
+        });
+    }
+
+    private final class Waiter {
+        private final String owner;
+        private final long since;
+        private final int limit;
+        private final DeferredResult<ResponseEntity<CashCardChanges>> result;
+
+        private Waiter(String owner, long since, int limit, DeferredResult<ResponseEntity<CashCardChanges>> result) {
+            this.owner = owner;
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+
+        void tryComplete() {
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            List<CashCardEvent> events = cashCardEventRepository
+                    .findByOwnerAndPositionGreaterThanOrderByPositionAsc(owner, since, Limit.of(limit));
+            if (!events.isEmpty()) {
+                result.setResult(ResponseEntity.ok(CashCardChanges.of(events)));
+            }
+        }
+
+        // Completes from events read in position order for the owner; returns whether any were past this waiter.
+        boolean complete(List<CashCardEvent> events) {
+            if (result.isSetOrExpired()) {
+                return true;
+            }
+            List<CashCardEvent> newer = events.stream()
+                    .filter(event -> event.getPosition() > since)
+                    .limit(limit)
+                    .toList();
+            if (newer.isEmpty()) {
+                return false;
+            }
+            result.setResult(ResponseEntity.ok(CashCardChanges.of(newer)));
+            return true;
+        }
+    }
+}
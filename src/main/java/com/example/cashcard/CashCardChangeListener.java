@@ -0,0 +1,116 @@
+package com.example.cashcard;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Wakes this instance's parked long-polls when the relay, on whichever instance holds its lock, publishes events.
+// The relay sends one NOTIFY per owner on commit; this listens on its own connection outside the pool, since it is
+// held for the life of the application. After a reconnect every parked owner is woken, as notifications sent while
+// disconnected are lost. Started once the application is ready rather than during refresh, so opening the connection
+// never holds up startup; stopped with the context like any running lifecycle bean.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+class CashCardChangeListener implements SmartLifecycle {
+    static final String CHANNEL = "cash_card_changes";
+
+    private static final Logger log = LoggerFactory.getLogger(CashCardChangeListener.class);
+    private static final Duration RECEIVE_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final CashCardChangeFeed changeFeed;
+    private final String url;
+    private final String username;
+    private final String password;
+    private volatile Thread thread;
+
+    CashCardChangeListener(
+            CashCardChangeFeed changeFeed,
+            DataSourceProperties dataSourceProperties,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails
+    ) {
+        this.changeFeed = changeFeed;
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        this.url = details != null ? details.getJdbcUrl() : dataSourceProperties.determineUrl();
+        this.username = details != null ? details.getUsername() : dataSourceProperties.determineUsername();
+        this.password = details != null ? details.getPassword() : dataSourceProperties.determinePassword();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        start();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return false;
+    }
+
+    @Override
+    public void start() {
+        thread = Thread.ofPlatform().daemon().name("cash-card-change-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        Thread running = thread;
+        thread = null;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    private void listen() {
+        while (thread == Thread.currentThread()) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                changeFeed.wakeAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (thread == Thread.currentThread()) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) RECEIVE_TIMEOUT.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        Set<String> owners = new LinkedHashSet<>();
+                        for (PGNotification notification : notifications) {
+                            owners.add(notification.getParameter());
+                        }
+                        changeFeed.published(owners);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (thread != Thread.currentThread()) {
+                    return;
+                }
+                log.warn("Change listener lost its connection, reconnecting", e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
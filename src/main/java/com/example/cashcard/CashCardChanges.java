@@ -0,0 +1,9 @@
+package com.example.cashcard;
+
+import java.util.List;
+
+public record CashCardChanges(List<CashCardEvent> events, long next) {
+    static CashCardChanges of(List<CashCardEvent> events) {
+        return new CashCardChanges(events, events.get(events.size() - 1).getPosition());
+    }
+}
@@ -1,90 +1,270 @@
 package com.example.cashcard;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.Principal;
+import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
 @RestController()
 @RequestMapping("/cashcards")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CashCardController {
+    private static final int MAX_SLICE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final CashCardRepository cashCardRepository;
+    private final CashCardSummaryRepository cashCardSummaryRepository;
+    private final CashCardService cashCardService;
+    private final CashCardExporter cashCardExporter;
+    private final CashCardBatchService cashCardBatchService;
+    private final CashCardChangeFeed cashCardChangeFeed;
+    private final CashCardAdjustmentCombiner cashCardAdjustmentCombiner;
+    private final CashCardImporter cashCardImporter;
 
-    private CashCardController(CashCardRepository cashCardRepository) {
+    private CashCardController(
+            CashCardRepository cashCardRepository,
+            CashCardSummaryRepository cashCardSummaryRepository,
+            CashCardService cashCardService,
+            CashCardExporter cashCardExporter,
+            CashCardBatchService cashCardBatchService,
+            CashCardChangeFeed cashCardChangeFeed,
+            CashCardAdjustmentCombiner cashCardAdjustmentCombiner,
+            CashCardImporter cashCardImporter
+    ) {
         this.cashCardRepository = cashCardRepository;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.cashCardService = cashCardService;
+        this.cashCardExporter = cashCardExporter;
+        this.cashCardBatchService = cashCardBatchService;
+        this.cashCardChangeFeed = cashCardChangeFeed;
+        this.cashCardAdjustmentCombiner = cashCardAdjustmentCombiner;
+        this.cashCardImporter = cashCardImporter;
     }
 
     @GetMapping("/{requestedId}")
     private ResponseEntity<CashCard> findById(@PathVariable long requestedId, Principal principal) {
+        // An If-None-Match hit on the ETag is answered with 304 and no body by the return value handler.
         Optional<CashCard> cashCardOptional = findCashCard(requestedId, principal);
-        return cashCardOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return cashCardOptional
+                .map(cashCard -> ResponseEntity.ok().eTag(CashCardETags.of(cashCard)).body(cashCard))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     private ResponseEntity<Void> createNew(
             @RequestBody CashCard newCashCardRequest,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             Principal principal
     ) throws URISyntaxException {
-        CashCard newCashCardWithOwner = new CashCard(null, newCashCardRequest.getAmount(), principal.getName());
-        CashCard savedCashCard = cashCardRepository.save(newCashCardWithOwner);
-        return ResponseEntity.created(new URI("/cashcards/" + savedCashCard.getId())).build();
+        if (idempotencyKey == null) {
+            CashCard savedCashCard = cashCardService.create(principal.getName(), newCashCardRequest.getAmount());
+            return ResponseEntity.created(new URI("/cashcards/" + savedCashCard.getId())).build();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKeyStore.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long id = cashCardService.create(principal.getName(), newCashCardRequest.getAmount(), idempotencyKey);
+        return ResponseEntity.created(new URI("/cashcards/" + id)).build();
+    }
+
+    @PostMapping("/batch")
+    private ResponseEntity<List<CashCardOperationResult>> batch(
+            @RequestBody List<CashCardOperation> operations,
+            Principal principal
+    ) {
+        if (operations.isEmpty() || operations.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(cashCardBatchService.apply(principal.getName(), operations));
+    }
+
+    // The body is passed through as a stream so an upload of any size is never buffered by a message converter.
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    private ResponseEntity<CashCardImportResult> importCashCards(
+            Principal principal,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        CashCardImporter.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? CashCardImporter.Format.NDJSON
+                : CashCardImporter.Format.CSV;
+        return ResponseEntity.ok(cashCardImporter.importCashCards(principal.getName(), body, format));
+    }
+
+    @PostMapping("/{requestedId}/adjustments")
+    private ResponseEntity<CashCardBalance> adjust(
+            Principal principal,
+            @PathVariable Long requestedId,
+            @RequestBody CashCardAdjustment adjustment
+    ) {
+        if (!CashCardAdjustment.isWithinBounds(adjustment.delta())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        CashCardAdjustmentResult result =
+                cashCardAdjustmentCombiner.adjust(principal.getName(), requestedId, adjustment.delta());
+        return ResponseEntity.status(result.status()).body(result.balance());
     }
 
     @GetMapping
     private ResponseEntity<Iterable<CashCard>> findAll(Principal principal, Pageable pageable) {
-        Page<CashCard> page = cashCardRepository.findByOwner(
-                principal.getName(),
-                PageRequest.of(
-                        pageable.getPageNumber(),
-                        pageable.getPageSize(),
-                        pageable.getSortOr(Sort.by(Sort.Direction.ASC, "amount"))
-                )
-        );
-        return ResponseEntity.ok(page.getContent());
+        Page<CashCard> page = cashCardRepository.findByOwner(principal.getName(), withDefaultSort(pageable));
+        return ResponseEntity.ok().eTag(CashCardETags.of(page.getContent())).body(page.getContent());
+    }
+
+    @GetMapping(params = {"fields", "!cursor"})
+    private ResponseEntity<List<?>> findAllFields(
+            Principal principal,
+            Pageable pageable,
+            @RequestParam String fields
+    ) {
+        Optional<Class<?>> projection = CashCardProjections.forFields(fields);
+        if (projection.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<?> page = cashCardRepository.findByOwner(principal.getName(), withDefaultSort(pageable), projection.get());
+        return ResponseEntity.<List<?>>ok(page.getContent());
+    }
+
+    @GetMapping(params = "cursor")
+    private ResponseEntity<CashCardSlice> findAllAfter(
+            Principal principal,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Pageable limit = PageRequest.ofSize(size);
+        Slice<CashCard> slice;
+        if (cursor.isEmpty()) {
+            slice = cashCardRepository.findByOwnerOrderByAmountAscIdAsc(principal.getName(), limit);
+        } else {
+            Optional<CashCardCursor> after = CashCardCursor.decode(cursor);
+            if (after.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            slice = cashCardRepository.findByOwnerAfter(
+                    principal.getName(),
+                    after.get().amount(),
+                    after.get().id(),
+                    limit
+            );
+        }
+
+        List<CashCard> content = slice.getContent();
+        String next = slice.hasNext() ? CashCardCursor.of(content.get(content.size() - 1)).encode() : null;
+        return ResponseEntity.ok(new CashCardSlice(content, next));
+    }
+
+    @GetMapping("/summary")
+    private ResponseEntity<CashCardSummary> summary(Principal principal) {
+        String owner = principal.getName();
+        return ResponseEntity.ok(cashCardSummaryRepository.findById(owner).orElseGet(() -> CashCardSummary.empty(owner)));
+    }
+
+    @GetMapping("/changes")
+    private DeferredResult<ResponseEntity<CashCardChanges>> changes(
+            Principal principal,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (since < 0 || limit < 1 || limit > MAX_SLICE_SIZE) {
+            DeferredResult<ResponseEntity<CashCardChanges>> badRequest = new DeferredResult<>();
+            badRequest.setResult(ResponseEntity.badRequest().build());
+            return badRequest;
+        }
+        return cashCardChangeFeed.poll(principal.getName(), since, limit);
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    private ResponseEntity<StreamingResponseBody> export(Principal principal) {
+        String owner = principal.getName();
+        StreamingResponseBody body = out -> cashCardExporter.export(owner, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PutMapping("/{requestedId}")
     private ResponseEntity<Void> update(
             Principal principal,
             @PathVariable Long requestedId,
-            @RequestBody CashCard cashCardNeedsUpdate
+            @RequestBody CashCard cashCardNeedsUpdate,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        Optional<CashCard> cashCardOptional = findCashCard(requestedId, principal);
-
-        if (cashCardOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        Optional<Long> expectedVersion = ifMatch == null ? Optional.empty() : CashCardETags.expectedVersion(ifMatch);
+        if (expectedVersion.isPresent()) {
+            HttpStatus status = cashCardService.update(
+                    requestedId,
+                    principal.getName(),
+                    cashCardNeedsUpdate.getAmount(),
+                    expectedVersion.get()
+            );
+            return ResponseEntity.status(status).build();
         }
 
-        cashCardRepository.save(new CashCard(
-                cashCardOptional.get().getId(),
-                cashCardNeedsUpdate.getAmount(),
-                principal.getName()
-        ));
+        boolean updated = cashCardService.update(requestedId, principal.getName(), cashCardNeedsUpdate.getAmount());
+
+        if (!updated) {
+            return ResponseEntity.status(missingStatus(ifMatch)).build();
+        }
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{requestedId}")
     private ResponseEntity<Void> delete(
             Principal principal,
-            @PathVariable Long requestedId
+            @PathVariable Long requestedId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        Optional<CashCard> cashCardOptional = findCashCard(requestedId, principal);
-
-        if (cashCardOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        Optional<Long> expectedVersion = ifMatch == null ? Optional.empty() : CashCardETags.expectedVersion(ifMatch);
+        if (expectedVersion.isPresent()) {
+            HttpStatus status = cashCardService.delete(requestedId, principal.getName(), expectedVersion.get());
+            return ResponseEntity.status(status).build();
         }
 
-        cashCardRepository.deleteById(requestedId);
+        boolean deleted = cashCardService.delete(requestedId, principal.getName());
+
+        if (!deleted) {
+            return ResponseEntity.status(missingStatus(ifMatch)).build();
+        }
         return ResponseEntity.noContent().build();
     }
 
+    private static PageRequest withDefaultSort(Pageable pageable) {
+        return PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSortOr(Sort.by(Sort.Direction.ASC, "amount"))
+        );
+    }
+
+    private static HttpStatus missingStatus(String ifMatch) {
+        return CashCardETags.matchesAny(ifMatch) ? HttpStatus.PRECONDITION_FAILED : HttpStatus.NOT_FOUND;
+    }
+
     private Optional<CashCard> findCashCard(Long id, Principal principal) {
         return cashCardRepository.findByIdAndOwner(id, principal.getName());
     }
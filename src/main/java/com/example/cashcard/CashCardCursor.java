@@ -0,0 +1,31 @@
+package com.example.cashcard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+record CashCardCursor(long amount, Long id) {
+    private static final String SEPARATOR = ":";
+
+    static CashCardCursor of(CashCard cashCard) {
+        return new CashCardCursor(cashCard.getAmount(), cashCard.getId());
+    }
+
+    static Optional<CashCardCursor> decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 2);
+            if (parts.length != 2) {
+                return Optional.empty();
+            }
+            return Optional.of(new CashCardCursor(Long.parseLong(parts[0]), Long.valueOf(parts[1])));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    String encode() {
+        String raw = amount + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cashcard;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Entity tags for cash cards. A single card is tagged with its version; a listing gets a weak tag over the ids and
+ * versions it contains, so it changes whenever a card enters, leaves or is modified within the page.
+ */
+final class CashCardETags {
+    private CashCardETags() {
+    }
+
+    static String of(CashCard cashCard) {
+        return "\"" + cashCard.getVersion() + "\"";
+    }
+
+    static String of(List<CashCard> cashCards) {
+        long hash = 1;
+        for (CashCard cashCard : cashCards) {
+            hash = 31 * hash + cashCard.getId();
+            hash = 31 * hash + cashCard.getVersion();
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Whether an If-Match header is the wildcard, which matches any version but still requires the card to exist:
+     * a write to a missing card under it is answered with 412 rather than 404.
+     */
+    static boolean matchesAny(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
+
+    /**
+     * Reads the version out of an If-Match header. Empty when the header matches any version; a weak or malformed
+     * tag yields a version no card can hold, since If-Match requires strong comparison.
+     */
+    static Optional<Long> expectedVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (matchesAny(tag)) {
+            return Optional.empty();
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return Optional.of(-1L);
+        }
+        try {
+            return Optional.of(Long.parseLong(tag.substring(1, tag.length() - 1)));
+        } catch (NumberFormatException e) {
+            return Optional.of(-1L);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "cash_card_event")
+public class CashCardEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cash_card_event_seq")
+    @SequenceGenerator(name = "cash_card_event_seq", sequenceName = "cash_card_event_seq", allocationSize = CashCard.ID_ALLOCATION_SIZE)
+    @Column(nullable = false)
+    private Long id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private Long cashCardId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    // The balance after the change; null for deletions.
+    @JsonSerialize(using = MinorUnits.Serializer.class)
+    private Long amount;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(insertable = false)
+    private Long position;
+
+    public CashCardEvent() {
+    }
+
+    private CashCardEvent(String owner, Long cashCardId, Type type, Long amount) {
+        this.owner = owner;
+        this.cashCardId = cashCardId;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    static CashCardEvent created(CashCard cashCard) {
+        return new CashCardEvent(cashCard.getOwner(), cashCard.getId(), Type.CREATED, cashCard.getAmount());
+    }
+
+    static CashCardEvent updated(String owner, Long cashCardId, long amount) {
+        return new CashCardEvent(owner, cashCardId, Type.UPDATED, amount);
+    }
+
+    static CashCardEvent deleted(String owner, Long cashCardId) {
+        return new CashCardEvent(owner, cashCardId, Type.DELETED, null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Long getCashCardId() {
+        return cashCardId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "CashCardEvent{" +
+                "id=" + id +
+                ", owner='" + owner + '\'' +
+                ", cashCardId=" + cashCardId +
+                ", type=" + type +
+                ", amount=" + amount +
+                ", position=" + position +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.cashcard;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CashCardEventRepository extends CrudRepository<CashCardEvent, Long> {
+    // Not read-only, so the replica routing leaves it on the primary: the change feed reads right after the relay's
+    // commit is announced, and a lagging replica would not show the events yet.
+    @Transactional
+    List<CashCardEvent> findByOwnerAndPositionGreaterThanOrderByPositionAsc(String owner, long position, Limit limit);
+
+    // Stamps the oldest unpublished events with the next feed positions, in id order, and returns them.
+    // Callers hold the relay lock, so positions are handed out by one transaction at a time.
+    @Query(nativeQuery = true, value = """
+            WITH batch AS (
+                SELECT id FROM cash_card_event WHERE position IS NULL ORDER BY id LIMIT :limit
+            ), numbered AS (
+                SELECT id, nextval('cash_card_event_position_seq') AS position FROM batch ORDER BY id
+            )
+            UPDATE cash_card_event e SET position = numbered.position
+            FROM numbered
+            WHERE e.id = numbered.id
+            RETURNING e.*
+            """)
+    List<CashCardEvent> claimUnpublished(int limit);
+
+    @Query(nativeQuery = true, value = "SELECT pg_try_advisory_xact_lock(:key)")
+    boolean tryRelayLock(long key);
+
+    @Query(nativeQuery = true, value = "SELECT count(*) FROM pg_notify(:channel, :payload)")
+    long sendNotification(String channel, String payload);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CashCardEvent e WHERE e.position IS NOT NULL AND e.createdAt < :cutoff")
+    int deletePublishedBefore(Instant cutoff);
+}
@@ -0,0 +1,11 @@
+package com.example.cashcard;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. Events arrive in feed position order, at least once: a batch whose transaction
+ * fails to commit after publishing is published again.
+ */
+public interface CashCardEventSink {
+    void publish(List<CashCardEvent> events);
+}
@@ -0,0 +1,57 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+@Component
+public class CashCardExporter {
+    private static final byte NEWLINE = '\n';
+
+    private final CashCardRepository cashCardRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+
+    CashCardExporter(
+            CashCardRepository cashCardRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.cashCardRepository = cashCardRepository;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(CashCard.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(String owner, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CashCard> cashCards = cashCardRepository.streamByOwner(owner)) {
+                cashCards.forEach(cashCard -> {
+                    write(cashCard, out);
+                    // Detach each row once written so the persistence context does not grow with the result set.
+                    entityManager.detach(cashCard);
+                });
+            }
+        });
+    }
+
+    private void write(CashCard cashCard, OutputStream out) {
+        try {
+            out.write(writer.writeValueAsBytes(cashCard));
+            out.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
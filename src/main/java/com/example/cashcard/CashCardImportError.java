@@ -0,0 +1,4 @@
+package com.example.cashcard;
+
+public record CashCardImportError(long line, String message) {
+}
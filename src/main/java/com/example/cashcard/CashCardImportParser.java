@@ -0,0 +1,155 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalLong;
+
+// Reads the amounts out of one upload, a line at a time, for both import pipelines. A CSV upload may open with a
+// header naming the amount column; without one the amount is taken from the first column.
+class CashCardImportParser {
+    private final CashCardImporter.Format format;
+    private final ObjectReader jsonReader;
+    private int amountColumn = -1;
+
+    CashCardImportParser(CashCardImporter.Format format, ObjectReader jsonReader) {
+        this.format = format;
+        this.jsonReader = jsonReader;
+    }
+
+    /**
+     * Returns the line's amount in minor units, or empty for a blank line or the CSV header. A line that cannot be
+     * imported throws IllegalArgumentException with the reason.
+     */
+    OptionalLong parse(String line) {
+        if (line.isBlank()) {
+            return OptionalLong.empty();
+        }
+        if (format == CashCardImporter.Format.NDJSON) {
+            return OptionalLong.of(parseJson(line));
+        }
+        if (amountColumn < 0) {
+            amountColumn = headerColumn(line);
+            if (amountColumn >= 0) {
+                return OptionalLong.empty();
+            }
+            amountColumn = 0;
+        }
+        return OptionalLong.of(parseCsv(line, amountColumn));
+    }
+
+    private static int headerColumn(String line) {
+        List<String> columns;
+        try {
+            columns = splitCsv(line);
+        } catch (IllegalArgumentException e) {
+            // Not a header; the same line is then rejected as a row.
+            return -1;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).strip().toLowerCase(Locale.ROOT).equals("amount")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseCsv(String line, int amountColumn) {
+        List<String> columns = splitCsv(line);
+        String value = amountColumn < columns.size() ? columns.get(amountColumn).strip() : "";
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("amount is missing");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount is not a decimal number");
+        }
+        return toMinorUnits(amount);
+    }
+
+    private long parseJson(String line) {
+        JsonNode node;
+        try {
+            node = jsonReader.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("line is not a JSON object");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("line is not a JSON object");
+        }
+        JsonNode amount = node.get("amount");
+        if (amount == null || amount.isNull()) {
+            throw new IllegalArgumentException("amount is missing");
+        }
+        if (!amount.isNumber()) {
+            throw new IllegalArgumentException("amount is not a decimal number");
+        }
+        return toMinorUnits(amount.decimalValue());
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        try {
+            return MinorUnits.fromDecimal(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "amount must have at most " + MinorUnits.SCALE + " decimal places and fit in range");
+        }
+    }
+
+    // Splits one RFC 4180 record. A quoted field may hold commas and doubled quotes; it may not hold a line break,
+    // since records are read a line at a time, so a quote left open at the end of the line rejects the row.
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            while (i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("quoted field is not closed");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < line.length() && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("unexpected text after a quoted field");
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        throw new IllegalArgumentException("quote inside an unquoted field");
+                    }
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+}
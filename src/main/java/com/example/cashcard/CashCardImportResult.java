@@ -0,0 +1,13 @@
+package com.example.cashcard;
+
+import java.util.List;
+
+// errors holds at most the configured number of rejected rows; rejected is always the full count.
+public record CashCardImportResult(
+        long imported,
+        long rejected,
+        List<CashCardImportError> errors,
+        long elapsedMillis,
+        long rowsPerSecond
+) {
+}
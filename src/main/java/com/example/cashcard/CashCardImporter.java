@@ -0,0 +1,207 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+// Bulk-loads cards for one owner from a CSV or NDJSON upload. The body is read line by line and never held whole:
+// valid rows are gathered into chunks, and each chunk is copied into a temporary staging table and merged into
+// cash_card, the outbox and the summary in its own transaction, so a failure part way keeps the chunks before it.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CashCardImporter {
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CashCardImporter.class);
+
+    // Shared with ReactiveCashCardImporter: rows are staged as tab-separated "id, event id, amount" lines.
+    static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE IF NOT EXISTS cash_card_import (
+                id BIGINT NOT NULL,
+                event_id BIGINT NOT NULL,
+                amount BIGINT NOT NULL
+            ) ON COMMIT DELETE ROWS
+            """;
+    static final String COPY_STAGING = "COPY cash_card_import (id, event_id, amount) FROM STDIN";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CashCardSummaryRepository cashCardSummaryRepository;
+    private final TransactionTemplate transaction;
+    private final ObjectReader jsonReader;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Timer chunkTimer;
+    private final DistributionSummary throughput;
+
+    CashCardImporter(
+            JdbcTemplate jdbcTemplate,
+            CashCardSummaryRepository cashCardSummaryRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cashcard.import.chunk-size}") int chunkSize,
+            @Value("${cashcard.import.max-errors}") int maxErrors
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Decimal amounts are read exactly rather than through a double.
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.importedRows = Counter.builder("cashcard.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.rejectedRows = Counter.builder("cashcard.import.rows").tag("outcome", "rejected").register(meterRegistry);
+        this.chunkTimer = Timer.builder("cashcard.import.chunk").register(meterRegistry);
+        this.throughput = DistributionSummary.builder("cashcard.import.throughput")
+                .baseUnit("rows.per.second")
+                .register(meterRegistry);
+    }
+
+    public CashCardImportResult importCashCards(String owner, InputStream in, Format format) throws IOException {
+        long started = System.nanoTime();
+        List<CashCardImportError> errors = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        long imported = 0;
+        long rejected = 0;
+        long lineNumber = 0;
+        CashCardImportParser parser = new CashCardImportParser(format, jsonReader);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            try {
+                OptionalLong amount = parser.parse(line);
+                if (amount.isEmpty()) {
+                    continue;
+                }
+                chunk.add(amount.getAsLong());
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                rejectedRows.increment();
+                if (errors.size() < maxErrors) {
+                    errors.add(new CashCardImportError(lineNumber, e.getMessage()));
+                }
+            }
+
+            if (chunk.size() == chunkSize) {
+                imported += load(owner, chunk);
+                chunk.clear();
+                log.info("Import for {}: {} rows loaded, {} rejected, {} lines read", owner, imported, rejected, lineNumber);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += load(owner, chunk);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        long rowsPerSecond = imported * 1_000_000_000L / elapsedNanos;
+        throughput.record(rowsPerSecond);
+        log.info("Import for {} finished: {} rows loaded, {} rejected, {} rows/s", owner, imported, rejected, rowsPerSecond);
+        return new CashCardImportResult(imported, rejected, List.copyOf(errors), elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private int load(String owner, List<Long> amounts) {
+        return chunkTimer.record(() -> transaction.execute(status -> {
+            long[] ids = allocateIds("cash_card_seq", amounts.size());
+            long[] eventIds = allocateIds("cash_card_event_seq", amounts.size());
+            CharSequence rows = stagingRows(ids, eventIds, amounts);
+
+            jdbcTemplate.execute(CREATE_STAGING);
+            jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection.unwrap(PGConnection.class), rows));
+            int inserted = jdbcTemplate.update(
+                    "INSERT INTO cash_card (id, amount, owner) SELECT id, amount, ? FROM cash_card_import", owner);
+            jdbcTemplate.update("""
+                    INSERT INTO cash_card_event (id, owner, cash_card_id, type, amount)
+                    SELECT event_id, ?, id, 'CREATED', amount FROM cash_card_import
+                    """, owner);
+            cashCardSummaryRepository.applyDelta(owner, total(amounts), inserted);
+            importedRows.increment(inserted);
+            return inserted;
+        }));
+    }
+
+    // COPY text format: one tab-separated line per card.
+    static CharSequence stagingRows(long[] ids, long[] eventIds, List<Long> amounts) {
+        StringBuilder rows = new StringBuilder(amounts.size() * 32);
+        for (int i = 0; i < amounts.size(); i++) {
+            rows.append(ids[i]).append('\t').append(eventIds[i]).append('\t').append(amounts.get(i)).append('\n');
+        }
+        return rows;
+    }
+
+    static long total(List<Long> amounts) {
+        long total = 0;
+        for (long amount : amounts) {
+            total += amount;
+        }
+        return total;
+    }
+
+    private static long copy(PGConnection connection, CharSequence rows) throws SQLException {
+        CopyManager copyManager = connection.getCopyAPI();
+        try {
+            return copyManager.copyIn(COPY_STAGING, new StringReader(rows.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Takes whole blocks from a pooled sequence, as Hibernate's pooled optimizer does: each value v it hands out
+    // reserves (v - allocation size, v], so ids drawn here never collide with those the entities draw.
+    private long[] allocateIds(String sequence, int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            List<Long> highs = jdbcTemplate.queryForList(
+                    "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocksFor(count - filled));
+            filled = fillFromBlocks(highs, ids, filled);
+        }
+        return ids;
+    }
+
+    static int blocksFor(int count) {
+        return (count + CashCard.ID_ALLOCATION_SIZE - 1) / CashCard.ID_ALLOCATION_SIZE;
+    }
+
+    // Fills ids from the blocks reserved by the given sequence values and returns how many are now filled.
+    static int fillFromBlocks(List<Long> highs, long[] ids, int filled) {
+        for (long high : highs) {
+            // A sequence's very first value is below the allocation size; its block starts at 1.
+            for (long id = Math.max(1, high - CashCard.ID_ALLOCATION_SIZE + 1); id <= high && filled < ids.length; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public record CashCardOperation(
+        Type type,
+        Long id,
+        @JsonSerialize(using = MinorUnits.Serializer.class)
+        @JsonDeserialize(using = MinorUnits.Deserializer.class)
+        Long amount
+) {
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+}
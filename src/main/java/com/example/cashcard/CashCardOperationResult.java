@@ -0,0 +1,9 @@
+package com.example.cashcard;
+
+import org.springframework.http.HttpStatus;
+
+public record CashCardOperationResult(Long id, int status) {
+    static CashCardOperationResult of(Long id, HttpStatus status) {
+        return new CashCardOperationResult(id, status.value());
+    }
+}
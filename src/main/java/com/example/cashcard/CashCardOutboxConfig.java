@@ -0,0 +1,27 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class CashCardOutboxConfig {
+    @Bean
+    @ConditionalOnProperty(name = "cashcard.outbox.sink", havingValue = "logging", matchIfMissing = true)
+    CashCardEventSink loggingCashCardEventSink() {
+        return new LoggingCashCardEventSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cashcard.outbox.sink", havingValue = "file")
+    CashCardEventSink fileCashCardEventSink(
+            @Value("${cashcard.outbox.file.path}") Path path,
+            ObjectMapper objectMapper
+    ) {
+        return new FileCashCardEventSink(path, objectMapper);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cashcard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class CashCardOutboxRelay {
+    // Advisory lock key shared by every instance, so a single relay assigns feed positions at any one time.
+    private static final long RELAY_LOCK = 0x63617368636172L;
+
+    private final CashCardEventRepository cashCardEventRepository;
+    private final CashCardEventSink sink;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final Duration retention;
+
+    CashCardOutboxRelay(
+            CashCardEventRepository cashCardEventRepository,
+            CashCardEventSink sink,
+            PlatformTransactionManager transactionManager,
+            @Value("${cashcard.outbox.batch-size}") int batchSize,
+            @Value("${cashcard.outbox.retention}") Duration retention
+    ) {
+        this.cashCardEventRepository = cashCardEventRepository;
+        this.sink = sink;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${cashcard.outbox.relay-interval}")
+    void relay() {
+        List<CashCardEvent> batch;
+        do {
+            batch = transaction.execute(status -> {
+                if (!cashCardEventRepository.tryRelayLock(RELAY_LOCK)) {
+                    return List.of();
+                }
+                List<CashCardEvent> events = cashCardEventRepository.claimUnpublished(batchSize).stream()
+                        .sorted(Comparator.comparing(CashCardEvent::getPosition))
+                        .toList();
+                if (!events.isEmpty()) {
+                    sink.publish(events);
+                    // Delivered on commit to the change listener of every instance, this one included.
+                    Set<String> owners = new LinkedHashSet<>();
+                    events.forEach(event -> owners.add(event.getOwner()));
+                    owners.forEach(owner -> cashCardEventRepository.sendNotification(CashCardChangeListener.CHANNEL, owner));
+                }
+                return events;
+            });
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${cashcard.outbox.purge-interval}")
+    void purgePublished() {
+        cashCardEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Closed interface projections behind the {@code fields} parameter of {@code GET /cashcards}. Spring Data selects
+ * only the columns a projection declares, so a client asking for {@code fields=id,amount} never loads the owner.
+ */
+public final class CashCardProjections {
+    public interface Id {
+        Long getId();
+    }
+
+    public interface Amount {
+        @JsonSerialize(using = MinorUnits.Serializer.class)
+        long getAmount();
+    }
+
+    public interface Owner {
+        String getOwner();
+    }
+
+    public interface IdAmount extends Id, Amount {
+    }
+
+    public interface IdOwner extends Id, Owner {
+    }
+
+    public interface AmountOwner extends Amount, Owner {
+    }
+
+    private static final Map<Set<String>, Class<?>> BY_FIELDS = Map.of(
+            Set.of("id"), Id.class,
+            Set.of("amount"), Amount.class,
+            Set.of("owner"), Owner.class,
+            Set.of("id", "amount"), IdAmount.class,
+            Set.of("id", "owner"), IdOwner.class,
+            Set.of("amount", "owner"), AmountOwner.class,
+            Set.of("id", "amount", "owner"), CashCard.class
+    );
+
+    private CashCardProjections() {
+    }
+
+    /**
+     * Resolves a comma-separated field list to the type to query for; empty when it names an unknown field.
+     */
+    static Optional<Class<?>> forFields(String fields) {
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        return Optional.ofNullable(BY_FIELDS.get(names));
+    }
+}
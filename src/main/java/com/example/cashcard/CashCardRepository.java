@@ -1,14 +1,121 @@
 package com.example.cashcard;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface CashCardRepository extends CrudRepository<CashCard, Long>, PagingAndSortingRepository<CashCard, Long> {
+    // The owner is part of the cache key, so a cached card is only ever served back to its own owner. A row read from
+    // a replica is returned but not cached: a lagging replica could otherwise refill the cache right after a write's
+    // eviction and the stale row would be served for the whole expiry.
+    @Cacheable(
+            cacheNames = CashCardCacheConfig.CASH_CARDS,
+            key = "{#owner, #id}",
+            unless = "#result == null || T(com.example.cashcard.ReplicaRoutingDataSource).lastRoutedToReplica()"
+    )
+    @Transactional(readOnly = true)
     Optional<CashCard> findByIdAndOwner(Long id, String owner);
 
+    // Locks in id order, so batches touching overlapping cards queue on the first shared row instead of deadlocking.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<CashCard> findByIdInAndOwnerOrderByIdAsc(Collection<Long> ids, String owner);
+
+    @Transactional(readOnly = true)
     Page<CashCard> findByOwner(String owner, PageRequest pageRequest);
+
+    @Transactional(readOnly = true)
+    <T> Page<T> findByOwner(String owner, Pageable pageable, Class<T> type);
+
+    @Transactional(readOnly = true)
+    Slice<CashCard> findByOwnerOrderByAmountAscIdAsc(String owner, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT c FROM CashCard c
+            WHERE c.owner = :owner
+              AND (c.amount > :amount OR (c.amount = :amount AND c.id > :id))
+            ORDER BY c.amount ASC, c.id ASC
+            """)
+    Slice<CashCard> findByOwnerAfter(String owner, long amount, Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM CashCard c WHERE c.owner = :owner ORDER BY c.amount, c.id")
+    Stream<CashCard> streamByOwner(String owner);
+
+    // Tells a refused write apart from a missing card, so it has to see what the write saw: read from the primary.
+    @Transactional
+    @Query("SELECT c.version FROM CashCard c WHERE c.id = :id AND c.owner = :owner")
+    Optional<Long> findVersionByIdAndOwner(Long id, String owner);
+
+    // All writes return the amount the card held before the statement, for the summary bookkeeping, and bump the
+    // version since they bypass Hibernate. The unconditional update locks the row first so the previous amount cannot
+    // be overtaken by a concurrent write; the versioned variants need no lock, as the version predicate on the target
+    // row is re-checked after any concurrent write and then fails.
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            WITH previous AS (
+                SELECT id, amount FROM cash_card WHERE id = :id AND owner = :owner FOR UPDATE
+            )
+            UPDATE cash_card c SET amount = :amount, version = c.version + 1
+            FROM previous
+            WHERE c.owner = :owner AND c.id = previous.id
+            RETURNING previous.amount
+            """)
+    Optional<Long> updateAmountByIdAndOwner(Long id, String owner, long amount);
+
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            WITH previous AS (
+                SELECT id, amount FROM cash_card WHERE id = :id AND owner = :owner AND version = :version
+            )
+            UPDATE cash_card c SET amount = :amount, version = c.version + 1
+            FROM previous
+            WHERE c.owner = :owner AND c.id = previous.id AND c.version = :version
+            RETURNING previous.amount
+            """)
+    Optional<Long> updateAmountByIdAndOwnerAndVersion(Long id, String owner, long version, long amount);
+
+    // Applies a signed delta in one statement, refusing any that would take the balance below zero, and returns the
+    // new balance. Concurrent adjustments queue on the row lock rather than overwriting one another.
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE cash_card SET amount = amount + :delta, version = version + 1
+            WHERE id = :id AND owner = :owner AND amount + :delta >= 0
+            RETURNING amount
+            """)
+    Optional<Long> adjustAmountByIdAndOwner(Long id, String owner, long delta);
+
+    @Query(nativeQuery = true, value = "SELECT amount FROM cash_card WHERE id = :id AND owner = :owner FOR UPDATE")
+    Optional<Long> findAmountByIdAndOwnerForUpdate(Long id, String owner);
+
+    @Transactional
+    @Query(nativeQuery = true, value = "DELETE FROM cash_card WHERE id = :id AND owner = :owner RETURNING amount")
+    Optional<Long> deleteByIdAndOwner(Long id, String owner);
+
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            DELETE FROM cash_card WHERE id = :id AND owner = :owner AND version = :version RETURNING amount
+            """)
+    Optional<Long> deleteByIdAndOwnerAndVersion(Long id, String owner, long version);
 }
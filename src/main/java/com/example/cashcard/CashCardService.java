@@ -0,0 +1,183 @@
+package com.example.cashcard;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class CashCardService {
+    private final CashCardRepository cashCardRepository;
+    private final CashCardSummaryRepository cashCardSummaryRepository;
+    private final CashCardEventRepository cashCardEventRepository;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final Cache cashCardCache;
+
+    CashCardService(
+            CashCardRepository cashCardRepository,
+            CashCardSummaryRepository cashCardSummaryRepository,
+            CashCardEventRepository cashCardEventRepository,
+            IdempotencyKeyStore idempotencyKeyStore,
+            CacheManager cacheManager
+    ) {
+        this.cashCardRepository = cashCardRepository;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.cashCardEventRepository = cashCardEventRepository;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        // Evictions are deferred until the write transaction commits.
+        this.cashCardCache = new TransactionAwareCacheDecorator(cacheManager.getCache(CashCardCacheConfig.CASH_CARDS));
+    }
+
+    @Transactional
+    public CashCard create(String owner, long amount) {
+        CashCard saved = cashCardRepository.save(new CashCard(null, amount, owner));
+        cashCardSummaryRepository.applyDelta(owner, amount, 1);
+        cashCardEventRepository.save(CashCardEvent.created(saved));
+        return saved;
+    }
+
+    /**
+     * Creates a card unless the owner already used the idempotency key, in which case the id of the card created
+     * under it is returned and nothing is written.
+     */
+    @Transactional
+    public Long create(String owner, long amount, String idempotencyKey) {
+        Optional<Long> recent = idempotencyKeyStore.recent(owner, idempotencyKey);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
+
+        CashCard saved = cashCardRepository.save(new CashCard(null, amount, owner));
+        Optional<Long> existing = idempotencyKeyStore.claim(owner, idempotencyKey, saved.getId());
+        if (existing.isPresent()) {
+            // Lost the race to an earlier request with the same key: discard the pending insert.
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return existing.get();
+        }
+
+        cashCardSummaryRepository.applyDelta(owner, amount, 1);
+        cashCardEventRepository.save(CashCardEvent.created(saved));
+        return saved.getId();
+    }
+
+    @Transactional
+    public boolean update(Long id, String owner, long amount) {
+        Optional<Long> previous = cashCardRepository.updateAmountByIdAndOwner(id, owner, amount);
+        if (previous.isEmpty()) {
+            return false;
+        }
+
+        cashCardCache.evict(CashCardCacheConfig.key(owner, id));
+        cashCardSummaryRepository.applyDelta(owner, amount - previous.get(), 0);
+        cashCardEventRepository.save(CashCardEvent.updated(owner, id, amount));
+        return true;
+    }
+
+    /**
+     * Updates the card only if it is still at the expected version. Returns NO_CONTENT when applied,
+     * PRECONDITION_FAILED when the card has moved on, and NOT_FOUND when the owner has no such card.
+     */
+    @Transactional
+    public HttpStatus update(Long id, String owner, long amount, long expectedVersion) {
+        Optional<Long> previous = cashCardRepository.updateAmountByIdAndOwnerAndVersion(id, owner, expectedVersion, amount);
+        if (previous.isEmpty()) {
+            return conflictOrNotFound(id, owner);
+        }
+
+        cashCardCache.evict(CashCardCacheConfig.key(owner, id));
+        cashCardSummaryRepository.applyDelta(owner, amount - previous.get(), 0);
+        cashCardEventRepository.save(CashCardEvent.updated(owner, id, amount));
+        return HttpStatus.NO_CONTENT;
+    }
+
+    @Transactional
+    public boolean delete(Long id, String owner) {
+        Optional<Long> previous = cashCardRepository.deleteByIdAndOwner(id, owner);
+        if (previous.isEmpty()) {
+            return false;
+        }
+
+        cashCardCache.evict(CashCardCacheConfig.key(owner, id));
+        cashCardSummaryRepository.applyDelta(owner, -previous.get(), -1);
+        cashCardEventRepository.save(CashCardEvent.deleted(owner, id));
+        return true;
+    }
+
+    @Transactional
+    public HttpStatus delete(Long id, String owner, long expectedVersion) {
+        Optional<Long> previous = cashCardRepository.deleteByIdAndOwnerAndVersion(id, owner, expectedVersion);
+        if (previous.isEmpty()) {
+            return conflictOrNotFound(id, owner);
+        }
+
+        cashCardCache.evict(CashCardCacheConfig.key(owner, id));
+        cashCardSummaryRepository.applyDelta(owner, -previous.get(), -1);
+        cashCardEventRepository.save(CashCardEvent.deleted(owner, id));
+        return HttpStatus.NO_CONTENT;
+    }
+
+    @Transactional
+    public CashCardAdjustmentResult adjust(Long id, String owner, long delta) {
+        Optional<Long> amount = cashCardRepository.adjustAmountByIdAndOwner(id, owner, delta);
+        if (amount.isEmpty()) {
+            return CashCardAdjustmentResult.rejected(cashCardRepository.findVersionByIdAndOwner(id, owner).isPresent()
+                    ? HttpStatus.CONFLICT
+                    : HttpStatus.NOT_FOUND);
+        }
+
+        cashCardCache.evict(CashCardCacheConfig.key(owner, id));
+        cashCardSummaryRepository.applyDelta(owner, delta, 0);
+        cashCardEventRepository.save(CashCardEvent.updated(owner, id, amount.get()));
+        return CashCardAdjustmentResult.applied(id, amount.get());
+    }
+
+    /**
+     * Applies a run of adjustments to one card in a single transaction: the row is locked and read once, each delta
+     * is accepted or refused in order against the running balance, and the accepted ones are written back as one
+     * update. Results are positional with the deltas.
+     */
+    @Transactional
+    public List<CashCardAdjustmentResult> adjustAll(Long id, String owner, List<Long> deltas) {
+        Optional<Long> current = cashCardRepository.findAmountByIdAndOwnerForUpdate(id, owner);
+        if (current.isEmpty()) {
+            return Collections.nCopies(deltas.size(), CashCardAdjustmentResult.rejected(HttpStatus.NOT_FOUND));
+        }
+
+        long amount = current.get();
+        List<CashCardAdjustmentResult> results = new ArrayList<>(deltas.size());
+        List<CashCardEvent> events = new ArrayList<>();
+        for (long delta : deltas) {
+            // Overflow fails the batch like the single-statement update's "bigint out of range" instead of wrapping.
+            long next = Math.addExact(amount, delta);
+            if (next < 0) {
+                results.add(CashCardAdjustmentResult.rejected(HttpStatus.CONFLICT));
+            } else {
+                amount = next;
+                results.add(CashCardAdjustmentResult.applied(id, amount));
+                events.add(CashCardEvent.updated(owner, id, amount));
+            }
+        }
+
+        if (!events.isEmpty()) {
+            cashCardRepository.updateAmountByIdAndOwner(id, owner, amount);
+            cashCardCache.evict(CashCardCacheConfig.key(owner, id));
+            cashCardSummaryRepository.applyDelta(owner, amount - current.get(), 0);
+            cashCardEventRepository.saveAll(events);
+        }
+        return results;
+    }
+
+    private HttpStatus conflictOrNotFound(Long id, String owner) {
+        return cashCardRepository.findVersionByIdAndOwner(id, owner).isPresent()
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.NOT_FOUND;
+    }
+}
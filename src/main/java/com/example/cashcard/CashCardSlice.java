@@ -0,0 +1,6 @@
+package com.example.cashcard;
+
+import java.util.List;
+
+public record CashCardSlice(List<CashCard> content, String next) {
+}
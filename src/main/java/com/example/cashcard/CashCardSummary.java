@@ -0,0 +1,71 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "cash_card_summary")
+public class CashCardSummary {
+    @Id
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    @JsonSerialize(using = MinorUnits.Serializer.class)
+    private long total;
+
+    @Column(nullable = false)
+    private long cardCount;
+
+    @JsonSerialize(using = MinorUnits.Serializer.class)
+    private Long minAmount;
+
+    @JsonSerialize(using = MinorUnits.Serializer.class)
+    private Long maxAmount;
+
+    public CashCardSummary() {
+    }
+
+    public CashCardSummary(String owner, long total, long cardCount, Long minAmount, Long maxAmount) {
+        this.owner = owner;
+        this.total = total;
+        this.cardCount = cardCount;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    static CashCardSummary empty(String owner) {
+        return new CashCardSummary(owner, 0, 0, null, null);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCardCount() {
+        return cardCount;
+    }
+
+    public Long getMinAmount() {
+        return minAmount;
+    }
+
+    public Long getMaxAmount() {
+        return maxAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "CashCardSummary{" +
+                "owner='" + owner + '\'' +
+                ", total=" + total +
+                ", cardCount=" + cardCount +
+                ", minAmount=" + minAmount +
+                ", maxAmount=" + maxAmount +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.cashcard;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+public interface CashCardSummaryRepository extends CrudRepository<CashCardSummary, String> {
+    default int applyDelta(String owner, long totalDelta, long countDelta) {
+        lock(owner);
+        return applyLockedDelta(owner, totalDelta, countDelta);
+    }
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = CashCardSummarySql.LOCK)
+    int lock(String owner);
+
+    @Modifying
+    @Query(nativeQuery = true, value = CashCardSummarySql.APPLY_DELTA)
+    int applyLockedDelta(String owner, long totalDelta, long countDelta);
+}
@@ -0,0 +1,28 @@
+package com.example.cashcard;
+
+// Shared by the JPA and R2DBC summary repositories. Total and count move by deltas; min and max are re-read through
+// the (owner, amount, id) index, which stays an index probe however many cards the owner has.
+//
+// The two statements must run in this order within the writer's transaction. LOCK creates or locks the owner's
+// summary row, so writers to one owner queue there; APPLY_DELTA then starts with a fresh read committed snapshot
+// that includes every earlier writer's cards. Computing min and max in the upsert itself would use a snapshot
+// taken before the wait and could overwrite a newer min or max with a stale one.
+final class CashCardSummarySql {
+    static final String LOCK = """
+            INSERT INTO cash_card_summary AS s (owner, total, card_count)
+            VALUES (:owner, 0, 0)
+            ON CONFLICT (owner) DO UPDATE SET total = s.total
+            """;
+
+    static final String APPLY_DELTA = """
+            UPDATE cash_card_summary SET
+                total = total + :totalDelta,
+                card_count = card_count + :countDelta,
+                min_amount = (SELECT MIN(amount) FROM cash_card WHERE owner = :owner),
+                max_amount = (SELECT MAX(amount) FROM cash_card WHERE owner = :owner)
+            WHERE owner = :owner
+            """;
+
+    private CashCardSummarySql() {
+    }
+}
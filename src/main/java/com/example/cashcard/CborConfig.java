@@ -0,0 +1,43 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Offers application/cbor next to JSON, negotiated through Accept. The CBOR mapper comes from Boot's builder, so it
+ * carries the same modules and settings as the JSON one and the minor unit serializers apply unchanged.
+ */
+@Configuration
+public class CborConfig {
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    WebFluxConfigurer cborCodecConfigurer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = cborMapper(builder);
+        return new WebFluxConfigurer() {
+            @Override
+            public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+                configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+                configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+            }
+        };
+    }
+
+    private static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.cashcard;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+    // Lazy initialization would otherwise push the request path onto the first request, and would never
+    // create the beans whose @Scheduled work nothing else triggers.
+    @Bean
+    static LazyInitializationExcludeFilter eagerCashCardBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                SecurityFilterChain.class,
+                JwtDecoder.class,
+                CashCardController.class,
+                CashCardOutboxRelay.class,
+                IdempotencyKeyStore.class
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends each batch to an NDJSON file, one event per line.
+class FileCashCardEventSink implements CashCardEventSink {
+    private static final byte NEWLINE = '\n';
+
+    private final Path path;
+    private final ObjectWriter writer;
+
+    FileCashCardEventSink(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.writer = objectMapper.writerFor(CashCardEvent.class);
+    }
+
+    @Override
+    public synchronized void publish(List<CashCardEvent> events) {
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (CashCardEvent event : events) {
+                out.write(writer.writeValueAsBytes(event));
+                out.write(NEWLINE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
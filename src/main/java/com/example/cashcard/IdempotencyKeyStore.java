@@ -0,0 +1,79 @@
+package com.example.cashcard;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class IdempotencyKeyStore {
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final JdbcClient jdbcClient;
+    private final Cache recentKeys;
+    private final Duration ttl;
+
+    IdempotencyKeyStore(
+            JdbcClient jdbcClient,
+            @Value("${cashcard.idempotency.cache.maximum-size}") long cacheMaximumSize,
+            @Value("${cashcard.idempotency.ttl}") Duration ttl
+    ) {
+        this.jdbcClient = jdbcClient;
+        this.ttl = ttl;
+        // Puts are deferred until the claiming transaction commits, so a rolled back create is never replayed.
+        this.recentKeys = new TransactionAwareCacheDecorator(new CaffeineCache("idempotencyKeys", Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(ttl)
+                .build()));
+    }
+
+    public Optional<Long> recent(String owner, String key) {
+        return Optional.ofNullable(recentKeys.get(List.of(owner, key), Long.class));
+    }
+
+    /**
+     * Claims the key for the given card within the current transaction. Returns empty when the claim succeeded, or
+     * the id of the card that already holds the key; a concurrent claim blocks on the unique index until its
+     * transaction ends.
+     */
+    public Optional<Long> claim(String owner, String key, Long cashCardId) {
+        int claimed = jdbcClient.sql("""
+                        INSERT INTO idempotency_key (owner, idempotency_key, cash_card_id)
+                        VALUES (:owner, :key, :cashCardId)
+                        ON CONFLICT DO NOTHING
+                        """)
+                .param("owner", owner)
+                .param("key", key)
+                .param("cashCardId", cashCardId)
+                .update();
+        if (claimed == 1) {
+            recentKeys.put(List.of(owner, key), cashCardId);
+            return Optional.empty();
+        }
+
+        Long existing = jdbcClient.sql("SELECT cash_card_id FROM idempotency_key WHERE owner = :owner AND idempotency_key = :key")
+                .param("owner", owner)
+                .param("key", key)
+                .query(Long.class)
+                .single();
+        recentKeys.put(List.of(owner, key), existing);
+        return Optional.of(existing);
+    }
+
+    @Scheduled(fixedDelayString = "${cashcard.idempotency.purge-interval}")
+    void purgeExpired() {
+        jdbcClient.sql("DELETE FROM idempotency_key WHERE created_at < :cutoff")
+                .param("cutoff", Timestamp.from(Instant.now().minus(ttl)))
+                .update();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.cashcard;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.security.converter.RsaKeyConverters;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+public class JwtDecoderConfig {
+    @Bean
+    JwtDecoder jwtDecoder(
+            OAuth2ResourceServerProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${cashcard.jwt.cache.enabled}") boolean cacheEnabled,
+            @Value("${cashcard.jwt.cache.maximum-size}") long cacheMaximumSize,
+            @Value("${cashcard.jwt.cache.max-ttl}") Duration cacheMaxTtl,
+            @Value("${cashcard.jwt.jwk-set.ttl}") Duration jwkSetTtl,
+            @Value("${cashcard.jwt.jwk-set.refresh-ahead}") Duration jwkSetRefreshAhead,
+            @Value("${cashcard.jwt.jwk-set.refresh-timeout}") Duration jwkSetRefreshTimeout
+    ) throws IOException {
+        OAuth2ResourceServerProperties.Jwt jwt = properties.getJwt();
+        NimbusJwtDecoder decoder;
+        if (jwt.getJwkSetUri() != null) {
+            decoder = jwkSetDecoder(jwt, jwkSetTtl, jwkSetRefreshAhead, jwkSetRefreshTimeout);
+        } else if (jwt.getPublicKeyLocation() != null) {
+            decoder = publicKeyDecoder(jwt);
+        } else {
+            throw new IllegalStateException(
+                    "Either spring.security.oauth2.resourceserver.jwt.jwk-set-uri or public-key-location must be set");
+        }
+        decoder.setJwtValidator(validator(jwt));
+
+        JwtDecoder effective = cacheEnabled
+                ? new CachingJwtDecoder(decoder, cacheMaximumSize, cacheMaxTtl)
+                : decoder;
+        return timed(effective, meterRegistry);
+    }
+
+    private static JwtDecoder timed(JwtDecoder decoder, MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder("cashcard.jwt.decode")
+                .description("Time to decode and validate a bearer token")
+                .register(meterRegistry);
+        return token -> timer.record(() -> decoder.decode(token));
+    }
+
+    // The JWK set is cached and refreshed ahead of expiry on a background thread, so a key rotation
+    // fetch never blocks a request thread.
+    private static NimbusJwtDecoder jwkSetDecoder(
+            OAuth2ResourceServerProperties.Jwt jwt,
+            Duration ttl,
+            Duration refreshAhead,
+            Duration refreshTimeout
+    ) throws IOException {
+        JWKSource<SecurityContext> jwkSource = JWKSourceBuilder.create(URI.create(jwt.getJwkSetUri()).toURL())
+                .cache(ttl.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .build();
+        warmUp(jwkSource);
+        Set<JWSAlgorithm> algorithms = jwt.getJwsAlgorithms().stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // Claims are validated by the Spring validator set below.
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    // Fetches the JWK set in the background during startup, so the first authenticated request does not pay for it.
+    // A failure is left to the first request, which retries the fetch.
+    private static void warmUp(JWKSource<SecurityContext> jwkSource) {
+        Thread.ofVirtual().name("jwk-set-warmup").start(() -> {
+            try {
+                jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            } catch (KeySourceException ignored) {
+            }
+        });
+    }
+
+    private static NimbusJwtDecoder publicKeyDecoder(OAuth2ResourceServerProperties.Jwt jwt) throws IOException {
+        Resource location = jwt.getPublicKeyLocation();
+        try (InputStream in = location.getInputStream()) {
+            RSAPublicKey key = RsaKeyConverters.x509().convert(in);
+            return NimbusJwtDecoder.withPublicKey(key)
+                    .signatureAlgorithm(SignatureAlgorithm.from(jwt.getJwsAlgorithms().get(0)))
+                    .build();
+        }
+    }
+
+    private static OAuth2TokenValidator<Jwt> validator(OAuth2ResourceServerProperties.Jwt jwt) {
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        if (jwt.getIssuerUri() != null) {
+            validators.add(JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri()));
+        } else {
+            validators.add(JwtValidators.createDefault());
+        }
+        List<String> audiences = jwt.getAudiences();
+        if (!audiences.isEmpty()) {
+            validators.add(new JwtClaimValidator<Collection<String>>(JwtClaimNames.AUD,
+                    (aud) -> aud != null && aud.stream().anyMatch(audiences::contains)));
+        }
+        return new DelegatingOAuth2TokenValidator<>(validators);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cashcard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+
+// Sheds requests while the connection pool is saturated, read as more threads queued for a connection than the
+// threshold. The count is live, so shedding stops as soon as the queue drains, and reading it is a field read on
+// the pool rather than a meter lookup. Runs before authentication, sparing the JWT work. Actuator requests are never
+// shed, so health probes and the Prometheus scrape keep answering through an overload.
+class LoadSheddingFilter extends OncePerRequestFilter {
+    private static final RequestMatcher ACTUATOR = EndpointRequest.toAnyEndpoint();
+
+    private final HikariDataSource hikari;
+    private final int maxPendingConnections;
+    private final Counter shed;
+    // The pool only exists once the first connection has been taken.
+    private volatile HikariPoolMXBean pool;
+
+    LoadSheddingFilter(DataSource dataSource, MeterRegistry meterRegistry, int maxPendingConnections) {
+        this.hikari = unwrapHikari(dataSource);
+        this.maxPendingConnections = maxPendingConnections;
+        this.shed = Counter.builder("cashcard.requests.rejected")
+                .tag("reason", "load-shedding")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ACTUATOR.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (poolSaturated()) {
+            shed.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean poolSaturated() {
+        HikariPoolMXBean resolved = pool;
+        if (resolved == null) {
+            if (hikari == null || (resolved = hikari.getHikariPoolMXBean()) == null) {
+                return false;
+            }
+            pool = resolved;
+        }
+        return resolved.getThreadsAwaitingConnection() > maxPendingConnections;
+    }
+
+    // With replica routing this is the primary pool, which every write and cache fill waits on.
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
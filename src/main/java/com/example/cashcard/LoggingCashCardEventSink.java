@@ -0,0 +1,15 @@
+package com.example.cashcard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+class LoggingCashCardEventSink implements CashCardEventSink {
+    private static final Logger log = LoggerFactory.getLogger(LoggingCashCardEventSink.class);
+
+    @Override
+    public void publish(List<CashCardEvent> events) {
+        events.forEach(event -> log.info("{}", event));
+    }
+}
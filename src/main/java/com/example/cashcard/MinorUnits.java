@@ -0,0 +1,80 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Amounts are held as a long count of minor units (cents) and exchanged on the wire as decimal numbers,
+// e.g. 12345 <-> 123.45.
+final class MinorUnits {
+    static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    static long fromDecimal(BigDecimal amount) {
+        return amount.setScale(SCALE).unscaledValue().longValueExact();
+    }
+
+    static String format(long minorUnits) {
+        long units = Math.abs(minorUnits / 100);
+        long cents = Math.abs(minorUnits % 100);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(units).append('.');
+        if (cents < 10) {
+            text.append('0');
+        }
+        return text.append(cents).toString();
+    }
+
+    static class Serializer extends StdSerializer<Long> {
+        Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (gen.canWriteFormattedNumbers()) {
+                gen.writeNumber(format(value));
+            } else {
+                gen.writeNumber(toDecimal(value));
+            }
+        }
+    }
+
+    static class Deserializer extends StdDeserializer<Long> {
+        Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+            }
+
+            BigDecimal amount = p.getDecimalValue();
+            try {
+                return fromDecimal(amount);
+            } catch (ArithmeticException e) {
+                throw InvalidFormatException.from(p, "Amount must have at most " + SCALE + " decimal places", amount, Long.class);
+            }
+        }
+    }
+}
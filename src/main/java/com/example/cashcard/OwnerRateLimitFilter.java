@@ -0,0 +1,49 @@
+package com.example.cashcard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Runs right after bearer token authentication, so the bucket is keyed by the verified JWT subject.
+class OwnerRateLimitFilter extends OncePerRequestFilter {
+    private final OwnerRateLimiter limiter;
+    private final Counter rejected;
+
+    OwnerRateLimitFilter(OwnerRateLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.rejected = Counter.builder("cashcard.requests.rejected")
+                .tag("reason", "rate-limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken) {
+            Duration wait = limiter.acquire(authentication.getName());
+            if (!wait.isZero()) {
+                rejected.increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(wait.plusMillis(999).toSeconds()));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
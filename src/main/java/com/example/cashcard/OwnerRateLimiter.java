@@ -0,0 +1,54 @@
+package com.example.cashcard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket per owner, kept in its GCRA form: each bucket is a single "theoretical arrival time" advanced by one
+// emission interval per admitted request, so admission is one CAS on an AtomicLong with no lock and no refill task.
+// Buckets live in a Caffeine map and drop out once an owner has been idle long enough to be full again.
+class OwnerRateLimiter {
+    private final Cache<String, AtomicLong> buckets;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Clock clock;
+
+    OwnerRateLimiter(double requestsPerSecond, int burst, Clock clock) {
+        this.emissionIntervalNanos = (long) (Duration.ofSeconds(1).toNanos() / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(burstToleranceNanos).plusSeconds(1))
+                .maximumSize(1_000_000)
+                .build();
+    }
+
+    /**
+     * Admits one request for the owner. Returns zero when admitted, otherwise how long the owner has to wait before
+     * the next request would be.
+     */
+    Duration acquire(String owner) {
+        AtomicLong arrival = buckets.get(owner, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanos();
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstToleranceNanos;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    private long nanos() {
+        Instant instant = clock.instant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
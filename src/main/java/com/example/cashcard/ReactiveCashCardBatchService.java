@@ -0,0 +1,155 @@
+package com.example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// R2DBC counterpart of CashCardBatchService: the owner's cards named by the batch are locked in id order, the
+// operations are resolved against them in memory, and the resulting writes are issued in the same transaction.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCashCardBatchService {
+    private final ReactiveCashCardRepository cashCardRepository;
+    private final ReactiveCashCardSummaryRepository cashCardSummaryRepository;
+    private final ReactiveCashCardEventRepository cashCardEventRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    ReactiveCashCardBatchService(
+            ReactiveCashCardRepository cashCardRepository,
+            ReactiveCashCardSummaryRepository cashCardSummaryRepository,
+            ReactiveCashCardEventRepository cashCardEventRepository,
+            ReactiveTransactionManager transactionManager
+    ) {
+        this.cashCardRepository = cashCardRepository;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.cashCardEventRepository = cashCardEventRepository;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<List<CashCardOperationResult>> apply(String owner, List<CashCardOperation> operations) {
+        return findOwned(owner, operations)
+                .flatMap(owned -> apply(owner, operations, owned))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<List<CashCardOperationResult>> apply(
+            String owner,
+            List<CashCardOperation> operations,
+            Map<Long, CashCard> owned
+    ) {
+        CashCardOperationResult[] results = new CashCardOperationResult[operations.size()];
+        List<Long> createdAmounts = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        Map<Long, CashCard> updated = new LinkedHashMap<>();
+        List<Long> deleted = new ArrayList<>();
+        List<CashCardEvent> events = new ArrayList<>();
+        long totalDelta = 0;
+        long countDelta = 0;
+        boolean changed = false;
+
+        for (int i = 0; i < operations.size(); i++) {
+            CashCardOperation operation = operations.get(i);
+            if (operation == null || operation.type() == null) {
+                results[i] = CashCardOperationResult.of(null, HttpStatus.BAD_REQUEST);
+                continue;
+            }
+
+            switch (operation.type()) {
+                case CREATE -> {
+                    if (operation.amount() == null) {
+                        results[i] = CashCardOperationResult.of(null, HttpStatus.BAD_REQUEST);
+                    } else {
+                        createdAmounts.add(operation.amount());
+                        createdIndexes.add(i);
+                        totalDelta += operation.amount();
+                        countDelta++;
+                        changed = true;
+                    }
+                }
+                case UPDATE -> {
+                    CashCard cashCard = owned.get(operation.id());
+                    if (cashCard == null) {
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NOT_FOUND);
+                    } else if (operation.amount() == null) {
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.BAD_REQUEST);
+                    } else {
+                        totalDelta += operation.amount() - cashCard.getAmount();
+                        cashCard.setAmount(operation.amount());
+                        updated.put(cashCard.getId(), cashCard);
+                        events.add(CashCardEvent.updated(owner, cashCard.getId(), operation.amount()));
+                        changed = true;
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NO_CONTENT);
+                    }
+                }
+                case DELETE -> {
+                    CashCard cashCard = owned.remove(operation.id());
+                    if (cashCard == null) {
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NOT_FOUND);
+                    } else {
+                        updated.remove(cashCard.getId());
+                        deleted.add(cashCard.getId());
+                        events.add(CashCardEvent.deleted(owner, cashCard.getId()));
+                        totalDelta -= cashCard.getAmount();
+                        countDelta--;
+                        changed = true;
+                        results[i] = CashCardOperationResult.of(operation.id(), HttpStatus.NO_CONTENT);
+                    }
+                }
+            }
+        }
+
+        Mono<Void> summary = changed
+                ? cashCardSummaryRepository.applyDelta(owner, totalDelta, countDelta).then()
+                : Mono.empty();
+        return Flux.fromIterable(updated.values())
+                .concatMap(cashCard -> cashCardRepository.setAmountByIdAndOwner(cashCard.getId(), owner, cashCard.getAmount()))
+                .thenMany(Flux.fromIterable(deleted).concatMap(id -> cashCardRepository.deleteByIdAndOwner(id, owner)))
+                .thenMany(Flux.fromIterable(createdAmounts).concatMap(amount -> cashCardRepository.insert(amount, owner)
+                        .flatMap(id -> insertEvent(CashCardEvent.created(new CashCard(id, amount, owner))).thenReturn(id))))
+                .collectList()
+                .flatMap(createdIds -> {
+                    for (int i = 0; i < createdIds.size(); i++) {
+                        results[createdIndexes.get(i)] = CashCardOperationResult.of(createdIds.get(i), HttpStatus.CREATED);
+                    }
+                    return summary
+                            .thenMany(Flux.fromIterable(events).concatMap(this::insertEvent))
+                            .then(Mono.fromSupplier(() -> List.of(results)));
+                });
+    }
+
+    private Mono<Map<Long, CashCard>> findOwned(String owner, List<CashCardOperation> operations) {
+        Set<Long> ids = new HashSet<>();
+        for (CashCardOperation operation : operations) {
+            if (operation != null && operation.type() != CashCardOperation.Type.CREATE && operation.id() != null) {
+                ids.add(operation.id());
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return Mono.just(new HashMap<>());
+        }
+        return cashCardRepository.findByIdInAndOwnerForUpdate(ids, owner)
+                .collectMap(CashCard::getId, cashCard -> cashCard, HashMap::new);
+    }
+
+    private Mono<Integer> insertEvent(CashCardEvent event) {
+        return cashCardEventRepository.insert(
+                event.getOwner(),
+                event.getCashCardId(),
+                event.getType().name(),
+                event.getAmount()
+        );
+    }
+}
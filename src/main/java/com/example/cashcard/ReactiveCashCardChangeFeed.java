@@ -0,0 +1,45 @@
+package com.example.cashcard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves GET /cashcards/changes as a long poll on the reactive stack. A request with nothing past its position
+ * re-reads the owner's events on the relay's cadence, as feed positions are only handed out that often, until some
+ * show up or the long-poll timeout passes; no thread is held in between.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCashCardChangeFeed {
+    private final ReactiveCashCardEventRepository cashCardEventRepository;
+    private final Duration pollInterval;
+    private final Duration timeout;
+
+    ReactiveCashCardChangeFeed(
+            ReactiveCashCardEventRepository cashCardEventRepository,
+            @Value("${cashcard.outbox.relay-interval}") Duration pollInterval,
+            @Value("${cashcard.outbox.long-poll-timeout}") Duration timeout
+    ) {
+        this.cashCardEventRepository = cashCardEventRepository;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+    }
+
+    public Mono<CashCardChanges> poll(String owner, long since, int limit) {
+        CashCardChanges empty = new CashCardChanges(List.of(), since);
+        // Ticks arriving while a read is still running are dropped rather than queued behind it.
+        return Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> cashCardEventRepository.findByOwnerAfter(owner, since, limit).collectList(), 1)
+                .filter(events -> !events.isEmpty())
+                .next()
+                .map(CashCardChanges::of)
+                .timeout(timeout, Mono.just(empty));
+    }
+}
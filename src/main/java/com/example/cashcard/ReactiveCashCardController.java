@@ -0,0 +1,251 @@
+package com.example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+// Serves the /cashcards contract of CashCardController on WebFlux and R2DBC.
+@RestController()
+@RequestMapping("/cashcards")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCashCardController {
+    private static final int MAX_SLICE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ReactiveCashCardRepository cashCardRepository;
+    private final ReactiveCashCardSummaryRepository cashCardSummaryRepository;
+    private final ReactiveCashCardService cashCardService;
+    private final ReactiveCashCardBatchService cashCardBatchService;
+    private final ReactiveCashCardChangeFeed cashCardChangeFeed;
+    private final ReactiveCashCardImporter cashCardImporter;
+
+    private ReactiveCashCardController(
+            ReactiveCashCardRepository cashCardRepository,
+            ReactiveCashCardSummaryRepository cashCardSummaryRepository,
+            ReactiveCashCardService cashCardService,
+            ReactiveCashCardBatchService cashCardBatchService,
+            ReactiveCashCardChangeFeed cashCardChangeFeed,
+            ReactiveCashCardImporter cashCardImporter
+    ) {
+        this.cashCardRepository = cashCardRepository;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.cashCardService = cashCardService;
+        this.cashCardBatchService = cashCardBatchService;
+        this.cashCardChangeFeed = cashCardChangeFeed;
+        this.cashCardImporter = cashCardImporter;
+    }
+
+    @GetMapping("/{requestedId}")
+    private Mono<ResponseEntity<CashCard>> findById(@PathVariable long requestedId, Principal principal) {
+        return cashCardRepository.findByIdAndOwner(requestedId, principal.getName())
+                .map(cashCard -> ResponseEntity.ok().eTag(CashCardETags.of(cashCard)).body(cashCard))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    private Mono<ResponseEntity<Void>> createNew(
+            @RequestBody CashCard newCashCardRequest,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            Principal principal
+    ) {
+        if (idempotencyKey == null) {
+            return cashCardService.create(principal.getName(), newCashCardRequest.getAmount())
+                    .map(id -> ResponseEntity.created(URI.create("/cashcards/" + id)).build());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKeyStore.MAX_KEY_LENGTH) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return cashCardService.create(principal.getName(), newCashCardRequest.getAmount(), idempotencyKey)
+                .map(id -> ResponseEntity.created(URI.create("/cashcards/" + id)).build());
+    }
+
+    @PostMapping("/{requestedId}/adjustments")
+    private Mono<ResponseEntity<CashCardBalance>> adjust(
+            Principal principal,
+            @PathVariable Long requestedId,
+            @RequestBody CashCardAdjustment adjustment
+    ) {
+        if (!CashCardAdjustment.isWithinBounds(adjustment.delta())) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return cashCardService.adjust(requestedId, principal.getName(), adjustment.delta())
+                .map(result -> ResponseEntity.status(result.status()).body(result.balance()));
+    }
+
+    @GetMapping
+    private Mono<ResponseEntity<List<CashCard>>> findAll(Principal principal, Pageable pageable) {
+        return cashCardRepository.findByOwner(principal.getName(), withDefaultSort(pageable))
+                .collectList()
+                .map(cashCards -> ResponseEntity.ok().eTag(CashCardETags.of(cashCards)).body(cashCards));
+    }
+
+    @GetMapping(params = {"fields", "!cursor"})
+    private Mono<ResponseEntity<List<?>>> findAllFields(
+            Principal principal,
+            Pageable pageable,
+            @RequestParam String fields
+    ) {
+        Optional<Class<?>> projection = CashCardProjections.forFields(fields);
+        if (projection.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return cashCardRepository.findByOwner(principal.getName(), withDefaultSort(pageable), projection.get())
+                .collectList()
+                .map(content -> ResponseEntity.<List<?>>ok(content));
+    }
+
+    @GetMapping(params = "cursor")
+    private Mono<ResponseEntity<CashCardSlice>> findAllAfter(
+            Principal principal,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        // One row past the page tells whether a next page exists.
+        Flux<CashCard> cashCards;
+        if (cursor.isEmpty()) {
+            cashCards = cashCardRepository.findByOwnerOrderByAmountAscIdAsc(principal.getName(), PageRequest.ofSize(size + 1));
+        } else {
+            Optional<CashCardCursor> after = CashCardCursor.decode(cursor);
+            if (after.isEmpty()) {
+                return Mono.just(ResponseEntity.badRequest().build());
+            }
+            cashCards = cashCardRepository.findByOwnerAfter(
+                    principal.getName(), after.get().amount(), after.get().id(), size + 1);
+        }
+
+        return cashCards.collectList().map(content -> {
+            if (content.size() <= size) {
+                return ResponseEntity.ok(new CashCardSlice(content, null));
+            }
+            List<CashCard> page = content.subList(0, size);
+            String next = CashCardCursor.of(page.get(size - 1)).encode();
+            return ResponseEntity.ok(new CashCardSlice(page, next));
+        });
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    private Flux<CashCard> export(Principal principal) {
+        return cashCardRepository.findByOwnerOrderByAmountAscIdAsc(principal.getName());
+    }
+
+    @PostMapping("/batch")
+    private Mono<ResponseEntity<List<CashCardOperationResult>>> batch(
+            @RequestBody List<CashCardOperation> operations,
+            Principal principal
+    ) {
+        if (operations.isEmpty() || operations.size() > MAX_BATCH_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return cashCardBatchService.apply(principal.getName(), operations).map(ResponseEntity::ok);
+    }
+
+    // The body is taken as raw buffers so an upload of any size is decoded line by line rather than buffered whole.
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    private Mono<ResponseEntity<CashCardImportResult>> importCashCards(
+            Principal principal,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestBody Flux<DataBuffer> body
+    ) {
+        CashCardImporter.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? CashCardImporter.Format.NDJSON
+                : CashCardImporter.Format.CSV;
+        return cashCardImporter.importCashCards(principal.getName(), body, format).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/changes")
+    private Mono<ResponseEntity<CashCardChanges>> changes(
+            Principal principal,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (since < 0 || limit < 1 || limit > MAX_SLICE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return cashCardChangeFeed.poll(principal.getName(), since, limit).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/summary")
+    private Mono<ResponseEntity<CashCardSummary>> summary(Principal principal) {
+        String owner = principal.getName();
+        return cashCardSummaryRepository.findByOwner(owner)
+                .defaultIfEmpty(CashCardSummary.empty(owner))
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{requestedId}")
+    private Mono<ResponseEntity<Void>> update(
+            Principal principal,
+            @PathVariable Long requestedId,
+            @RequestBody CashCard cashCardNeedsUpdate,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Optional<Long> expectedVersion = ifMatch == null ? Optional.empty() : CashCardETags.expectedVersion(ifMatch);
+        if (expectedVersion.isPresent()) {
+            return cashCardService.update(
+                            requestedId,
+                            principal.getName(),
+                            cashCardNeedsUpdate.getAmount(),
+                            expectedVersion.get()
+                    )
+                    .map(status -> ResponseEntity.status(status).<Void>build());
+        }
+
+        return cashCardService.update(requestedId, principal.getName(), cashCardNeedsUpdate.getAmount())
+                .map(updated -> updated
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.status(missingStatus(ifMatch)).<Void>build());
+    }
+
+    @DeleteMapping("/{requestedId}")
+    private Mono<ResponseEntity<Void>> delete(
+            Principal principal,
+            @PathVariable Long requestedId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Optional<Long> expectedVersion = ifMatch == null ? Optional.empty() : CashCardETags.expectedVersion(ifMatch);
+        if (expectedVersion.isPresent()) {
+            return cashCardService.delete(requestedId, principal.getName(), expectedVersion.get())
+                    .map(status -> ResponseEntity.status(status).<Void>build());
+        }
+
+        return cashCardService.delete(requestedId, principal.getName())
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.status(missingStatus(ifMatch)).<Void>build());
+    }
+
+    private static HttpStatus missingStatus(String ifMatch) {
+        return CashCardETags.matchesAny(ifMatch) ? HttpStatus.PRECONDITION_FAILED : HttpStatus.NOT_FOUND;
+    }
+
+    private static PageRequest withDefaultSort(Pageable pageable) {
+        return PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSortOr(Sort.by(Sort.Direction.ASC, "amount"))
+        );
+    }
+}
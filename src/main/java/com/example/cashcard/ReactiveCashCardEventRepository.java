@@ -0,0 +1,25 @@
+package com.example.cashcard;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCashCardEventRepository extends R2dbcRepository<CashCardEvent, Long> {
+    @Query("""
+            SELECT * FROM cash_card_event
+            WHERE owner = :owner AND position > :position
+            ORDER BY position ASC
+            LIMIT :limit
+            """)
+    Flux<CashCardEvent> findByOwnerAfter(String owner, long position, int limit);
+
+    // Draws from the pooled cash_card_event_seq the same way ReactiveCashCardRepository#insert does for cards.
+    @Modifying
+    @Query("""
+            INSERT INTO cash_card_event (id, owner, cash_card_id, type, amount)
+            VALUES (nextval('cash_card_event_seq'), :owner, :cashCardId, :type, :amount)
+            """)
+    Mono<Integer> insert(String owner, Long cashCardId, String type, Long amount);
+}
@@ -0,0 +1,196 @@
+package com.example.cashcard;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+// R2DBC counterpart of CashCardImporter, with the same chunking, staging table and metrics. The body is decoded into
+// lines as it arrives, and a chunk is only requested from it once the previous one has been loaded, so the upload is
+// never held whole. Each chunk goes into the staging table through r2dbc-postgresql's COPY FROM STDIN.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCashCardImporter {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCashCardImporter.class);
+    private static final MimeType TEXT_UTF8 = new MimeType("text", "plain", StandardCharsets.UTF_8);
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveCashCardSummaryRepository cashCardSummaryRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectReader jsonReader;
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Timer chunkTimer;
+    private final DistributionSummary throughput;
+
+    ReactiveCashCardImporter(
+            DatabaseClient databaseClient,
+            ReactiveCashCardSummaryRepository cashCardSummaryRepository,
+            ReactiveTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cashcard.import.chunk-size}") int chunkSize,
+            @Value("${cashcard.import.max-errors}") int maxErrors
+    ) {
+        this.databaseClient = databaseClient;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        // Decimal amounts are read exactly rather than through a double.
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.importedRows = Counter.builder("cashcard.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.rejectedRows = Counter.builder("cashcard.import.rows").tag("outcome", "rejected").register(meterRegistry);
+        this.chunkTimer = Timer.builder("cashcard.import.chunk").register(meterRegistry);
+        this.throughput = DistributionSummary.builder("cashcard.import.throughput")
+                .baseUnit("rows.per.second")
+                .register(meterRegistry);
+    }
+
+    public Mono<CashCardImportResult> importCashCards(String owner, Flux<DataBuffer> body, CashCardImporter.Format format) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            Progress progress = new Progress();
+            CashCardImportParser parser = new CashCardImportParser(format, jsonReader);
+
+            return lineDecoder.decode(body, ResolvableType.forClass(String.class), TEXT_UTF8, Map.of())
+                    .<Long>handle((line, sink) -> {
+                        progress.lineNumber++;
+                        try {
+                            OptionalLong amount = parser.parse(line);
+                            if (amount.isPresent()) {
+                                sink.next(amount.getAsLong());
+                            }
+                        } catch (IllegalArgumentException e) {
+                            progress.reject(e.getMessage());
+                        }
+                    })
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> load(owner, chunk).doOnNext(inserted -> {
+                        progress.imported += inserted;
+                        if (chunk.size() == chunkSize) {
+                            log.info("Import for {}: {} rows loaded, {} rejected, {} lines read",
+                                    owner, progress.imported, progress.rejected, progress.lineNumber);
+                        }
+                    }))
+                    .then(Mono.fromSupplier(() -> {
+                        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+                        long rowsPerSecond = progress.imported * 1_000_000_000L / elapsedNanos;
+                        throughput.record(rowsPerSecond);
+                        log.info("Import for {} finished: {} rows loaded, {} rejected, {} rows/s",
+                                owner, progress.imported, progress.rejected, rowsPerSecond);
+                        return new CashCardImportResult(progress.imported, progress.rejected,
+                                List.copyOf(progress.errors), elapsedNanos / 1_000_000, rowsPerSecond);
+                    }));
+        });
+    }
+
+    private Mono<Long> load(String owner, List<Long> amounts) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return allocateIds("cash_card_seq", amounts.size())
+                    .flatMap(ids -> allocateIds("cash_card_event_seq", amounts.size())
+                            .map(eventIds -> CashCardImporter.stagingRows(ids, eventIds, amounts)
+                                    .toString()
+                                    .getBytes(StandardCharsets.UTF_8)))
+                    .flatMap(rows -> databaseClient.sql(CashCardImporter.CREATE_STAGING)
+                            .then()
+                            .then(databaseClient.inConnection(connection -> postgresql(connection).copyIn(
+                                    CashCardImporter.COPY_STAGING,
+                                    Mono.fromSupplier(() -> Unpooled.wrappedBuffer(rows))))))
+                    .then(databaseClient.sql("""
+                                    INSERT INTO cash_card (id, amount, owner)
+                                    SELECT id, amount, :owner FROM cash_card_import
+                                    """)
+                            .bind("owner", owner)
+                            .fetch()
+                            .rowsUpdated())
+                    .flatMap(inserted -> databaseClient.sql("""
+                                    INSERT INTO cash_card_event (id, owner, cash_card_id, type, amount)
+                                    SELECT event_id, :owner, id, 'CREATED', amount FROM cash_card_import
+                                    """)
+                            .bind("owner", owner)
+                            .then()
+                            .then(cashCardSummaryRepository.applyDelta(owner, CashCardImporter.total(amounts), inserted))
+                            .thenReturn(inserted))
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(importedRows::increment)
+                    .doFinally(signal -> sample.stop(chunkTimer));
+        });
+    }
+
+    // Takes whole blocks from a pooled sequence, as CashCardImporter does.
+    private Mono<long[]> allocateIds(String sequence, int count) {
+        return allocateIds(sequence, new long[count], 0);
+    }
+
+    private Mono<long[]> allocateIds(String sequence, long[] ids, int filled) {
+        if (filled == ids.length) {
+            return Mono.just(ids);
+        }
+        return databaseClient.sql("SELECT nextval(CAST(:sequence AS regclass)) FROM generate_series(1, :blocks)")
+                .bind("sequence", sequence)
+                .bind("blocks", CashCardImporter.blocksFor(ids.length - filled))
+                .map(row -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .flatMap(highs -> allocateIds(sequence, ids, CashCardImporter.fillFromBlocks(highs, ids, filled)));
+    }
+
+    // The connection handed out inside the transaction is wrapped by the pool and by DatabaseClient.
+    private static PostgresqlConnection postgresql(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (!(current instanceof PostgresqlConnection postgresqlConnection)) {
+            throw new IllegalStateException("Bulk import needs a PostgreSQL R2DBC connection, got " + connection);
+        }
+        return postgresqlConnection;
+    }
+
+    private final class Progress {
+        private final List<CashCardImportError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private long lineNumber;
+
+        void reject(String message) {
+            rejected++;
+            rejectedRows.increment();
+            if (errors.size() < maxErrors) {
+                errors.add(new CashCardImportError(lineNumber, message));
+            }
+        }
+    }
+}
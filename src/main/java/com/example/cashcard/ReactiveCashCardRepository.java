@@ -0,0 +1,87 @@
+package com.example.cashcard;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveCashCardRepository extends R2dbcRepository<CashCard, Long> {
+    Mono<CashCard> findByIdAndOwner(Long id, String owner);
+
+    Flux<CashCard> findByOwner(String owner, Pageable pageable);
+
+    <T> Flux<T> findByOwner(String owner, Pageable pageable, Class<T> type);
+
+    Flux<CashCard> findByOwnerOrderByAmountAscIdAsc(String owner);
+
+    Flux<CashCard> findByOwnerOrderByAmountAscIdAsc(String owner, Pageable pageable);
+
+    @Query("""
+            SELECT * FROM cash_card
+            WHERE owner = :owner
+              AND (amount > :amount OR (amount = :amount AND id > :id))
+            ORDER BY amount ASC, id ASC
+            LIMIT :limit
+            """)
+    Flux<CashCard> findByOwnerAfter(String owner, long amount, Long id, int limit);
+
+    // Locks in id order, so batches touching overlapping cards queue on the first shared row instead of deadlocking.
+    @Query("SELECT * FROM cash_card WHERE owner = :owner AND id IN (:ids) ORDER BY id FOR UPDATE")
+    Flux<CashCard> findByIdInAndOwnerForUpdate(Collection<Long> ids, String owner);
+
+    // Shares cash_card_seq with Hibernate's pooled optimizer: a value v reserves the block (v - 50, v],
+    // so using v itself can never collide with ids handed out from another block.
+    @Query("INSERT INTO cash_card(id, amount, owner) VALUES (nextval('cash_card_seq'), :amount, :owner) RETURNING id")
+    Mono<Long> insert(long amount, String owner);
+
+    @Query("SELECT nextval('cash_card_seq')")
+    Mono<Long> nextId();
+
+    @Modifying
+    @Query("INSERT INTO cash_card(id, amount, owner) VALUES (:id, :amount, :owner)")
+    Mono<Integer> insert(Long id, long amount, String owner);
+
+    @Query("""
+            WITH previous AS (
+                SELECT id, amount FROM cash_card WHERE id = :id AND owner = :owner FOR UPDATE
+            )
+            UPDATE cash_card c SET amount = :amount, version = c.version + 1
+            FROM previous
+            WHERE c.owner = :owner AND c.id = previous.id
+            RETURNING previous.amount
+            """)
+    Mono<Long> updateAmountByIdAndOwner(Long id, String owner, long amount);
+
+    @Query("""
+            WITH previous AS (
+                SELECT id, amount FROM cash_card WHERE id = :id AND owner = :owner AND version = :version
+            )
+            UPDATE cash_card c SET amount = :amount, version = c.version + 1
+            FROM previous
+            WHERE c.owner = :owner AND c.id = previous.id AND c.version = :version
+            RETURNING previous.amount
+            """)
+    Mono<Long> updateAmountByIdAndOwnerAndVersion(Long id, String owner, long version, long amount);
+
+    // For rows the caller has already locked.
+    @Modifying
+    @Query("UPDATE cash_card SET amount = :amount, version = version + 1 WHERE id = :id AND owner = :owner")
+    Mono<Integer> setAmountByIdAndOwner(Long id, String owner, long amount);
+
+    @Query("""
+            UPDATE cash_card SET amount = amount + :delta, version = version + 1
+            WHERE id = :id AND owner = :owner AND amount + :delta >= 0
+            RETURNING amount
+            """)
+    Mono<Long> adjustAmountByIdAndOwner(Long id, String owner, long delta);
+
+    @Query("DELETE FROM cash_card WHERE id = :id AND owner = :owner RETURNING amount")
+    Mono<Long> deleteByIdAndOwner(Long id, String owner);
+
+    @Query("DELETE FROM cash_card WHERE id = :id AND owner = :owner AND version = :version RETURNING amount")
+    Mono<Long> deleteByIdAndOwnerAndVersion(Long id, String owner, long version);
+}
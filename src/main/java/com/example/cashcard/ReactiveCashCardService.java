@@ -0,0 +1,112 @@
+package com.example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCashCardService {
+    private final ReactiveCashCardRepository cashCardRepository;
+    private final ReactiveCashCardSummaryRepository cashCardSummaryRepository;
+    private final ReactiveCashCardEventRepository cashCardEventRepository;
+    private final ReactiveIdempotencyKeyStore idempotencyKeyStore;
+    private final TransactionalOperator transactionalOperator;
+
+    ReactiveCashCardService(
+            ReactiveCashCardRepository cashCardRepository,
+            ReactiveCashCardSummaryRepository cashCardSummaryRepository,
+            ReactiveCashCardEventRepository cashCardEventRepository,
+            ReactiveIdempotencyKeyStore idempotencyKeyStore,
+            ReactiveTransactionManager transactionManager
+    ) {
+        this.cashCardRepository = cashCardRepository;
+        this.cashCardSummaryRepository = cashCardSummaryRepository;
+        this.cashCardEventRepository = cashCardEventRepository;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<Long> create(String owner, long amount) {
+        return cashCardRepository.insert(amount, owner)
+                .flatMap(id -> cashCardSummaryRepository.applyDelta(owner, amount, 1)
+                        .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.CREATED.name(), amount))
+                        .thenReturn(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Creates a card unless the owner already used the idempotency key, in which case the id of the card created
+     * under it is returned and nothing is written. The id is drawn first and claimed before the card is inserted, so
+     * a lost claim leaves nothing to roll back.
+     */
+    public Mono<Long> create(String owner, long amount, String idempotencyKey) {
+        return cashCardRepository.nextId()
+                .flatMap(id -> idempotencyKeyStore.claim(owner, idempotencyKey, id)
+                        .switchIfEmpty(Mono.defer(() -> cashCardRepository.insert(id, amount, owner)
+                                .then(cashCardSummaryRepository.applyDelta(owner, amount, 1))
+                                .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.CREATED.name(), amount))
+                                .thenReturn(id))))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Boolean> update(Long id, String owner, long amount) {
+        return cashCardRepository.updateAmountByIdAndOwner(id, owner, amount)
+                .flatMap(previous -> cashCardSummaryRepository.applyDelta(owner, amount - previous, 0)
+                        .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.UPDATED.name(), amount))
+                        .thenReturn(true))
+                .defaultIfEmpty(false)
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Updates the card only if it is still at the expected version, completing with NO_CONTENT when applied,
+     * PRECONDITION_FAILED when the card has moved on, and NOT_FOUND when the owner has no such card.
+     */
+    public Mono<HttpStatus> update(Long id, String owner, long amount, long expectedVersion) {
+        return cashCardRepository.updateAmountByIdAndOwnerAndVersion(id, owner, expectedVersion, amount)
+                .flatMap(previous -> cashCardSummaryRepository.applyDelta(owner, amount - previous, 0)
+                        .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.UPDATED.name(), amount))
+                        .thenReturn(HttpStatus.NO_CONTENT))
+                .switchIfEmpty(Mono.defer(() -> conflictOrNotFound(id, owner)))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<CashCardAdjustmentResult> adjust(Long id, String owner, long delta) {
+        return cashCardRepository.adjustAmountByIdAndOwner(id, owner, delta)
+                .flatMap(amount -> cashCardSummaryRepository.applyDelta(owner, delta, 0)
+                        .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.UPDATED.name(), amount))
+                        .thenReturn(CashCardAdjustmentResult.applied(id, amount)))
+                .switchIfEmpty(Mono.defer(() -> cashCardRepository.findByIdAndOwner(id, owner)
+                        .map(cashCard -> CashCardAdjustmentResult.rejected(HttpStatus.CONFLICT))
+                        .defaultIfEmpty(CashCardAdjustmentResult.rejected(HttpStatus.NOT_FOUND))))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Boolean> delete(Long id, String owner) {
+        return cashCardRepository.deleteByIdAndOwner(id, owner)
+                .flatMap(previous -> cashCardSummaryRepository.applyDelta(owner, -previous, -1)
+                        .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.DELETED.name(), null))
+                        .thenReturn(true))
+                .defaultIfEmpty(false)
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<HttpStatus> delete(Long id, String owner, long expectedVersion) {
+        return cashCardRepository.deleteByIdAndOwnerAndVersion(id, owner, expectedVersion)
+                .flatMap(previous -> cashCardSummaryRepository.applyDelta(owner, -previous, -1)
+                        .then(cashCardEventRepository.insert(owner, id, CashCardEvent.Type.DELETED.name(), null))
+                        .thenReturn(HttpStatus.NO_CONTENT))
+                .switchIfEmpty(Mono.defer(() -> conflictOrNotFound(id, owner)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<HttpStatus> conflictOrNotFound(Long id, String owner) {
+        return cashCardRepository.findByIdAndOwner(id, owner)
+                .map(cashCard -> HttpStatus.PRECONDITION_FAILED)
+                .defaultIfEmpty(HttpStatus.NOT_FOUND);
+    }
+}
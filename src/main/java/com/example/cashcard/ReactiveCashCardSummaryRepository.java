@@ -0,0 +1,22 @@
+package com.example.cashcard;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCashCardSummaryRepository extends R2dbcRepository<CashCardSummary, String> {
+    Mono<CashCardSummary> findByOwner(String owner);
+
+    default Mono<Integer> applyDelta(String owner, long totalDelta, long countDelta) {
+        return lock(owner).then(applyLockedDelta(owner, totalDelta, countDelta));
+    }
+
+    @Modifying
+    @Query(CashCardSummarySql.LOCK)
+    Mono<Integer> lock(String owner);
+
+    @Modifying
+    @Query(CashCardSummarySql.APPLY_DELTA)
+    Mono<Integer> applyLockedDelta(String owner, long totalDelta, long countDelta);
+}
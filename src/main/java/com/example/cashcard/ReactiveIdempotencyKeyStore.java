@@ -0,0 +1,42 @@
+package com.example.cashcard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// R2DBC counterpart of IdempotencyKeyStore's claim, joining the caller's reactive transaction. Expired keys are
+// purged by IdempotencyKeyStore, which runs under both stacks.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveIdempotencyKeyStore {
+    private final DatabaseClient databaseClient;
+
+    ReactiveIdempotencyKeyStore(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Claims the key for the given card. Completes empty when the claim succeeded, or with the id of the card that
+     * already holds the key; a concurrent claim blocks on the unique index until its transaction ends.
+     */
+    public Mono<Long> claim(String owner, String key, Long cashCardId) {
+        return databaseClient.sql("""
+                        INSERT INTO idempotency_key (owner, idempotency_key, cash_card_id)
+                        VALUES (:owner, :key, :cashCardId)
+                        ON CONFLICT DO NOTHING
+                        """)
+                .bind("owner", owner)
+                .bind("key", key)
+                .bind("cashCardId", cashCardId)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(claimed -> claimed == 1
+                        ? Mono.empty()
+                        : databaseClient.sql("SELECT cash_card_id FROM idempotency_key WHERE owner = :owner AND idempotency_key = :key")
+                                .bind("owner", owner)
+                                .bind("key", key)
+                                .map(row -> row.get("cash_card_id", Long.class))
+                                .one());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cashcard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+// Pins an owner's reads to the primary for a short window after any successful write by that owner,
+// so a client never reads back an older state from a lagging replica. The decision is kept on the request so that
+// work handed to an async thread, such as the export's streaming body, reads from the primary too.
+class ReadYourWritesInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+    private static final String PRIMARY_REQUIRED = ReadYourWritesInterceptor.class.getName() + ".primaryRequired";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    ReadYourWritesInterceptor(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && recentWriters.getIfPresent(principal.getName()) != null) {
+            request.setAttribute(PRIMARY_REQUIRED, Boolean.TRUE);
+            ReplicaRoutingDataSource.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(PRIMARY_REQUIRED, RequestAttributes.SCOPE_REQUEST) != null) {
+            ReplicaRoutingDataSource.requirePrimary();
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ReplicaRoutingDataSource.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaRoutingDataSource.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.clear();
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && !HttpMethod.GET.matches(request.getMethod()) && response.getStatus() < 400) {
+            recentWriters.put(principal.getName(), Boolean.TRUE);
+        }
+    }
+}
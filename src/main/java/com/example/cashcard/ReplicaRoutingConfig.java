@@ -0,0 +1,107 @@
+package com.example.cashcard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "cashcard.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+    private final ReplicaRoutingProperties properties;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    ReplicaRoutingConfig(ReplicaRoutingProperties properties) {
+        this.properties = properties;
+        this.readYourWritesInterceptor = new ReadYourWritesInterceptor(properties.readYourWritesWindow());
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(
+            DataSourceProperties dataSourceProperties,
+            ObjectProvider<JdbcConnectionDetails> connectionDetails
+    ) {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(details != null ? details.getJdbcUrl() : dataSourceProperties.determineUrl())
+                .username(details != null ? details.getUsername() : dataSourceProperties.determineUsername())
+                .password(details != null ? details.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        List<String> replicaKeys = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.replicas().get(i);
+            String key = "replica-" + i;
+            targets.put(key, replicaDataSource(key, replica, primaryDataSource, meterRegistry.getIfAvailable()));
+            replicaKeys.add(key);
+        }
+
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(replicaKeys);
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primaryDataSource);
+        router.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/cashcards/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(readYourWritesInterceptor);
+    }
+
+    private static HikariDataSource replicaDataSource(
+            String name,
+            ReplicaRoutingProperties.Replica replica,
+            HikariDataSource primary,
+            MeterRegistry meterRegistry
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        primary.copyStateTo(dataSource);
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(replica.url());
+        if (replica.username() != null) {
+            dataSource.setUsername(replica.username());
+            dataSource.setPassword(replica.password());
+        }
+        dataSource.setReadOnly(true);
+        if (meterRegistry != null) {
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.cashcard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to the replicas in turn and everything else to the primary. Must sit behind a
+// LazyConnectionDataSourceProxy: the read-only flag is only known once the transaction has begun, after the
+// transaction manager has already asked for a connection.
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> primaryRequired = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> routedToReplica = ThreadLocal.withInitial(() -> false);
+
+    private final List<String> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(List<String> replicas) {
+        this.replicas = List.copyOf(replicas);
+    }
+
+    static void requirePrimary() {
+        primaryRequired.set(true);
+    }
+
+    static void clear() {
+        primaryRequired.remove();
+    }
+
+    // Whether the connection this thread last took from the router was a replica's. Public for use from SpEL.
+    public static boolean lastRoutedToReplica() {
+        return routedToReplica.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty()
+                || primaryRequired.get()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            routedToReplica.set(false);
+            return PRIMARY;
+        }
+        routedToReplica.set(true);
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+}
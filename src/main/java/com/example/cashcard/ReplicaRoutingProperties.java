@@ -0,0 +1,16 @@
+package com.example.cashcard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("cashcard.datasource")
+public record ReplicaRoutingProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration readYourWritesWindow
+) {
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -1,28 +1,55 @@
 package com.example.cashcard;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import javax.sql.DataSource;
+import java.time.Clock;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(
+            HttpSecurity http,
+            MeterRegistry meterRegistry,
+            @Value("${cashcard.rate-limit.enabled}") boolean rateLimitEnabled,
+            @Value("${cashcard.rate-limit.requests-per-second}") double requestsPerSecond,
+            @Value("${cashcard.rate-limit.burst}") int burst,
+            @Value("${cashcard.load-shedding.enabled}") boolean loadSheddingEnabled,
+            @Value("${cashcard.load-shedding.max-pending-connections}") int maxPendingConnections,
+            DataSource dataSource
+    ) throws Exception {
         http
                 .oauth2ResourceServer((oauth2) -> oauth2
                         .jwt(withDefaults())
                 )
                 .authorizeHttpRequests((authorize) -> authorize
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers(HttpMethod.GET, "/cashcards/**").hasAuthority("SCOPE_cashcard:read")
                         .requestMatchers("/cashcards/**").hasAuthority("SCOPE_cashcard:write")
                         .anyRequest().authenticated()
                 )
                 .csrf(AbstractHttpConfigurer::disable);
+        // Created here rather than as beans, which Boot would also register as servlet filters outside the chain.
+        if (loadSheddingEnabled) {
+            http.addFilterBefore(new LoadSheddingFilter(dataSource, meterRegistry, maxPendingConnections), BearerTokenAuthenticationFilter.class);
+        }
+        if (rateLimitEnabled) {
+            OwnerRateLimiter limiter = new OwnerRateLimiter(requestsPerSecond, burst, Clock.systemUTC());
+            http.addFilterAfter(new OwnerRateLimitFilter(limiter, meterRegistry), BearerTokenAuthenticationFilter.class);
+        }
         return http.build();
     }
 }
@@ -0,0 +1,29 @@
+package com.example.cashcard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+    @Bean
+    FilterRegistrationBean<RequestBulkheadFilter> requestBulkheadFilter(
+            @Value("${cashcard.bulkhead.max-concurrent-requests}") int maxConcurrentRequests,
+            @Value("${cashcard.bulkhead.max-wait}") Duration maxWait
+    ) {
+        FilterRegistrationBean<RequestBulkheadFilter> registration =
+                new FilterRegistrationBean<>(new RequestBulkheadFilter(maxConcurrentRequests, maxWait));
+        registration.addUrlPatterns("/cashcards/*");
+        // Ahead of Spring Security, so unauthenticated and rate limited traffic is bounded too.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
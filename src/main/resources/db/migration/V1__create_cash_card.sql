@@ -4,4 +4,4 @@ CREATE TABLE cash_card
     amount DOUBLE PRECISION,
     owner  VARCHAR(255),
     CONSTRAINT pk_cash_card PRIMARY KEY (id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,4 @@
+-- Ids are handed out by Hibernate's pooled optimizer in blocks of 50, so the sequence must move in the same step.
+CREATE SEQUENCE cash_card_seq INCREMENT BY 50;
+
+SELECT setval('cash_card_seq', GREATEST((SELECT MAX(id) FROM cash_card), 1));
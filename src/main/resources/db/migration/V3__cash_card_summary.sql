@@ -0,0 +1,15 @@
+CREATE TABLE cash_card_summary
+(
+    owner      VARCHAR(255)     NOT NULL,
+    total      DOUBLE PRECISION NOT NULL,
+    card_count BIGINT           NOT NULL,
+    min_amount DOUBLE PRECISION,
+    max_amount DOUBLE PRECISION,
+    CONSTRAINT pk_cash_card_summary PRIMARY KEY (owner)
+);
+
+INSERT INTO cash_card_summary(owner, total, card_count, min_amount, max_amount)
+SELECT owner, COALESCE(SUM(amount), 0), COUNT(*), MIN(amount), MAX(amount)
+FROM cash_card
+WHERE owner IS NOT NULL
+GROUP BY owner;
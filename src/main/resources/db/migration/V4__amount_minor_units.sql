@@ -0,0 +1,23 @@
+-- Converts cash card amounts from DOUBLE PRECISION to a BIGINT count of minor units (cents).
+-- Summary totals accumulated in floating point are rebuilt from the converted cards rather than converted.
+
+UPDATE cash_card
+SET amount = 0
+WHERE amount IS NULL;
+
+ALTER TABLE cash_card
+    ALTER COLUMN amount TYPE BIGINT USING ROUND(amount * 100)::BIGINT,
+    ALTER COLUMN amount SET NOT NULL;
+
+ALTER TABLE cash_card_summary
+    ALTER COLUMN total TYPE BIGINT USING 0,
+    ALTER COLUMN min_amount TYPE BIGINT USING NULL,
+    ALTER COLUMN max_amount TYPE BIGINT USING NULL;
+
+TRUNCATE cash_card_summary;
+
+INSERT INTO cash_card_summary(owner, total, card_count, min_amount, max_amount)
+SELECT owner, SUM(amount), COUNT(*), MIN(amount), MAX(amount)
+FROM cash_card
+WHERE owner IS NOT NULL
+GROUP BY owner;
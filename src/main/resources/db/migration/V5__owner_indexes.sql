@@ -0,0 +1,5 @@
+-- Every CashCardRepository query is owner-scoped: point lookups seek on (owner, id), listings and keyset
+-- slices walk (owner, amount, id) in order.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cash_card_owner_id ON cash_card (owner, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cash_card_owner_amount_id ON cash_card (owner, amount, id);
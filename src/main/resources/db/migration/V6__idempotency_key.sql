@@ -0,0 +1,12 @@
+-- Retried POST /cashcards requests carrying the same Idempotency-Key resolve to the card created first.
+-- Rows are purged once older than cashcard.idempotency.ttl, walking the created_at index.
+CREATE TABLE idempotency_key
+(
+    owner           VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    cash_card_id    BIGINT       NOT NULL,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    CONSTRAINT pk_idempotency_key PRIMARY KEY (owner, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,2 @@
+-- Backs optimistic locking and the ETag of a cash card; every write to a row increments it.
+ALTER TABLE cash_card ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- Transactional outbox of cash card mutations. Rows are written with the change itself; the relay later stamps
+-- them with a feed position, which grows in publication order and is what consumers resume from.
+CREATE SEQUENCE cash_card_event_seq INCREMENT BY 50;
+CREATE SEQUENCE cash_card_event_position_seq;
+
+CREATE TABLE cash_card_event
+(
+    id           BIGINT       NOT NULL,
+    owner        VARCHAR(255) NOT NULL,
+    cash_card_id BIGINT       NOT NULL,
+    type         VARCHAR(16)  NOT NULL,
+    amount       BIGINT,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    position     BIGINT,
+    CONSTRAINT pk_cash_card_event PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_cash_card_event_unpublished ON cash_card_event (id) WHERE position IS NULL;
+CREATE INDEX idx_cash_card_event_owner_position ON cash_card_event (owner, position) WHERE position IS NOT NULL;
@@ -0,0 +1,50 @@
+-- Moves cash_card to declarative hash partitioning on owner. Every query is owner-scoped, so each one is pruned to a
+-- single partition, and indexes and vacuum work per partition rather than across all tenants.
+-- The partition key has to be part of the primary key; (owner, id) also serves the owner-ordered scans that the
+-- separate (owner, id) index used to. Ids stay globally unique through cash_card_seq.
+-- The modulus is fixed here: raising it later means another migration of this shape, so it leaves ample headroom.
+-- cash_card is locked exclusively before the copy and stays locked until this migration commits, so writes from
+-- instances still running (such as the previous version in a rolling deploy) wait instead of landing after the copy
+-- and being dropped with the old table. Those writes then fail once the table is replaced; schedule accordingly.
+CREATE TABLE cash_card_partitioned
+(
+    id      BIGINT       NOT NULL,
+    amount  BIGINT       NOT NULL,
+    owner   VARCHAR(255) NOT NULL,
+    version BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT pk_cash_card_partitioned PRIMARY KEY (owner, id)
+) PARTITION BY HASH (owner);
+
+DO
+$$
+    BEGIN
+        FOR remainder IN 0..15
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE cash_card_p%s PARTITION OF cash_card_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                        remainder, remainder);
+            END LOOP;
+    END
+$$;
+
+LOCK TABLE cash_card IN ACCESS EXCLUSIVE MODE;
+
+INSERT INTO cash_card_partitioned (id, amount, owner, version)
+SELECT id, amount, owner, version
+FROM cash_card
+WHERE owner IS NOT NULL;
+
+-- Cards without an owner were never reachable through the API and cannot carry the partition key; keep them aside.
+CREATE TABLE cash_card_ownerless AS
+SELECT *
+FROM cash_card
+WHERE owner IS NULL;
+
+DROP TABLE cash_card;
+
+ALTER TABLE cash_card_partitioned RENAME TO cash_card;
+ALTER TABLE cash_card RENAME CONSTRAINT pk_cash_card_partitioned TO pk_cash_card;
+
+CREATE INDEX idx_cash_card_owner_amount_id ON cash_card (owner, amount, id);
+
+ANALYZE cash_card;
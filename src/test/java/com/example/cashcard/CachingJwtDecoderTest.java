@@ -0,0 +1,53 @@
+package com.example.cashcard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingJwtDecoderTest {
+    private final Instant now = Instant.parse("2024-01-01T00:00:00Z");
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private JwtDecoder delegate(Instant expiresAt) {
+        return token -> {
+            decodes.incrementAndGet();
+            return Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject("sarah1")
+                    .issuedAt(now.minusSeconds(10))
+                    .expiresAt(expiresAt)
+                    .build();
+        };
+    }
+
+    @Test
+    void shouldDecodeRepeatedTokenOnlyOnce() {
+        JwtDecoder decoder = new CachingJwtDecoder(
+                delegate(now.plusSeconds(3600)), 100, Duration.ofMinutes(5), Clock.fixed(now, ZoneOffset.UTC));
+
+        decoder.decode("token-a");
+        decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertThat(decodes).hasValue(2);
+    }
+
+    @Test
+    void shouldNotServeCachedTokenPastItsExpiry() {
+        JwtDecoder decoder = new CachingJwtDecoder(
+                delegate(now), 100, Duration.ofMinutes(5), Clock.fixed(now, ZoneOffset.UTC));
+
+        decoder.decode("token-a");
+        decoder.decode("token-a");
+
+        assertThat(decodes).hasValue(2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.cashcard;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestContainersConfiguration.class)
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "cashcard.adjustments.coalescing.enabled=true"
+)
+@Sql(scripts = "insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class CashCardAdjustmentCoalescingTests {
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TestJwtCreator jwtCreator;
+
+    @Test
+    void shouldApplyConcurrentAdjustmentsWithoutOverdraft() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer " + jwtCreator.create("sarah1"));
+        List<Long> deltas = new ArrayList<>();
+        List<Callable<ResponseEntity<String>>> adjustments = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long delta = i % 2 == 0 ? 1000 : -5000;
+            deltas.add(delta);
+            adjustments.add(() -> restTemplate.exchange("/cashcards/99/adjustments", HttpMethod.POST,
+                    new HttpEntity<>(new CashCardAdjustment(delta), headers), String.class));
+        }
+
+        long expected = 12345;
+        try (ExecutorService executor = Executors.newFixedThreadPool(50)) {
+            // Any caller still waiting at the deadline is cancelled, and get() then fails the test.
+            List<Future<ResponseEntity<String>>> responses = executor.invokeAll(adjustments, 60, TimeUnit.SECONDS);
+            for (int i = 0; i < responses.size(); i++) {
+                ResponseEntity<String> res = responses.get(i).get();
+                assertThat(res.getStatusCode()).isIn(HttpStatus.OK, HttpStatus.CONFLICT);
+                if (res.getStatusCode() == HttpStatus.OK) {
+                    double amount = JsonPath.parse(res.getBody()).read("$.amount");
+                    assertThat(amount).isGreaterThanOrEqualTo(0.0);
+                    expected += deltas.get(i);
+                }
+            }
+        }
+
+        ResponseEntity<String> card = restTemplate
+                .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        double amount = JsonPath.parse(card.getBody()).read("$.amount");
+        assertThat(amount).isEqualTo(expected / 100.0);
+        assertThat(amount).isGreaterThanOrEqualTo(0.0);
+    }
+}
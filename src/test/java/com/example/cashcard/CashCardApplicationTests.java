@@ -5,7 +5,9 @@ import com.jayway.jsonpath.JsonPath;
 import net.minidev.json.JSONArray;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.*;
@@ -14,10 +16,17 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 @Import(TestContainersConfiguration.class)
 @TestPropertySource(locations = "classpath:application-test.properties")
 @Sql(scripts = "insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
@@ -29,7 +38,10 @@ class CashCardApplicationTests {
     @Autowired
     TestJwtCreator jwtCreator;
 
-    private HttpHeaders createJwtBearerAuthenticationHeader(String username) {
+    @LocalManagementPort
+    int managementPort;
+
+    HttpHeaders createJwtBearerAuthenticationHeader(String username) {
         String token = jwtCreator.create(username);
         HttpHeaders headers = new HttpHeaders();
         headers.add("Authorization", "Bearer " + token);
@@ -63,7 +75,7 @@ class CashCardApplicationTests {
     @Test
     @DirtiesContext
     void shouldCreateNewCashCard() {
-        CashCard payload = new CashCard(null, 10.2, "sarah1");
+        CashCard payload = new CashCard(null, 1020, "sarah1");
         HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
         ResponseEntity<Void> postRes = restTemplate
                 .exchange("/cashcards", HttpMethod.POST, new HttpEntity<>(payload, headers), Void.class);
@@ -79,7 +91,53 @@ class CashCardApplicationTests {
         Number id = docContext.read("$.id");
         Double amount = docContext.read("$.amount");
         assertThat(id).isInstanceOf(Number.class).isNotNull();
-        assertThat(amount).isEqualTo(payload.getAmount());
+        assertThat(amount).isEqualTo(10.2);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldNotCreateDuplicateCashCardWhenRetriedWithSameIdempotencyKey() {
+        CashCard payload = new CashCard(null, 2500, "sarah1");
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        headers.add("Idempotency-Key", "terminal-7-txn-42");
+        ResponseEntity<Void> first = restTemplate
+                .exchange("/cashcards", HttpMethod.POST, new HttpEntity<>(payload, headers), Void.class);
+        ResponseEntity<Void> retry = restTemplate
+                .exchange("/cashcards", HttpMethod.POST, new HttpEntity<>(payload, headers), Void.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getLocation()).isEqualTo(first.getHeaders().getLocation());
+
+        ResponseEntity<String> summary = restTemplate
+                .exchange("/cashcards/summary", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        Number count = JsonPath.parse(summary.getBody()).read("$.cardCount");
+        assertThat(count).isEqualTo(4);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldPublishCreatedCashCardToChangeFeed() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        URI location = restTemplate.exchange("/cashcards", HttpMethod.POST,
+                new HttpEntity<>(new CashCard(null, 4200, "sarah1"), headers), Void.class).getHeaders().getLocation();
+        Number createdId = Long.valueOf(location.getPath().substring("/cashcards/".length()));
+
+        // Earlier tests may have left events for the same owner, so follow the feed until the new card shows up.
+        long since = 0;
+        boolean published = false;
+        for (int polls = 0; polls < 10 && !published; polls++) {
+            ResponseEntity<String> res = restTemplate.exchange("/cashcards/changes?since=" + since + "&limit=1000",
+                    HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            DocumentContext docContext = JsonPath.parse(res.getBody());
+            JSONArray created = docContext.read("$.events[?(@.type == 'CREATED')].cashCardId");
+            published = created.contains(createdId.intValue());
+            Number next = docContext.read("$.next");
+            since = next.longValue();
+        }
+        assertThat(published).isTrue();
     }
 
     @Test
@@ -101,6 +159,38 @@ class CashCardApplicationTests {
         assertThat(amounts).containsExactlyInAnyOrder(123.45, 1.0, 150.00);
     }
 
+    @Test
+    void shouldReturnOnlyRequestedFields() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards?fields=id,amount", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext docContext = JsonPath.parse(res.getBody());
+        JSONArray ids = docContext.read("$..id");
+        assertThat(ids).containsExactly(100, 99, 101);
+        JSONArray amounts = docContext.read("$..amount");
+        assertThat(amounts).containsExactly(1.0, 123.45, 150.00);
+        JSONArray owners = docContext.read("$..owner");
+        assertThat(owners).isEmpty();
+
+        ResponseEntity<String> unknown = restTemplate
+                .exchange("/cashcards?fields=id,balance", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(unknown.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldNegotiateCborEncoding() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        ResponseEntity<byte[]> res = restTemplate
+                .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(res.getBody()).isNotEmpty();
+    }
+
     @Test
     void shouldReturnPageOfCashCards() {
         HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
@@ -149,10 +239,178 @@ class CashCardApplicationTests {
         assertThat(amounts).containsExactly(1.0, 123.45, 150.00);
     }
 
+    @Test
+    void shouldReturnSliceOfCashCardsWithContinuationCursor() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> firstRes = restTemplate
+                .exchange("/cashcards?cursor=&size=2", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(firstRes.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext firstContext = JsonPath.parse(firstRes.getBody());
+        JSONArray firstAmounts = firstContext.read("$.content[*].amount");
+        assertThat(firstAmounts).containsExactly(1.0, 123.45);
+        String next = firstContext.read("$.next");
+        assertThat(next).isNotBlank();
+
+        ResponseEntity<String> secondRes = restTemplate
+                .exchange("/cashcards?cursor=" + next + "&size=2", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(secondRes.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext secondContext = JsonPath.parse(secondRes.getBody());
+        JSONArray secondIds = secondContext.read("$.content[*].id");
+        assertThat(secondIds).containsExactly(101);
+        String last = secondContext.read("$.next");
+        assertThat(last).isNull();
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards?cursor=not-a-cursor", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldExportAllCashCardsAsNdjson() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/export", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+
+        String[] lines = res.getBody().strip().split("\n");
+        assertThat(lines).hasSize(3);
+        Number id = JsonPath.parse(lines[0]).read("$.id");
+        assertThat(id).isEqualTo(100);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldApplyBatchOfOperations() {
+        List<CashCardOperation> payload = List.of(
+                new CashCardOperation(CashCardOperation.Type.CREATE, null, 4200L),
+                new CashCardOperation(CashCardOperation.Type.UPDATE, 99L, 5000L),
+                new CashCardOperation(CashCardOperation.Type.DELETE, 100L, null),
+                new CashCardOperation(CashCardOperation.Type.UPDATE, 102L, 100L)
+        );
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/batch", HttpMethod.POST, new HttpEntity<>(payload, headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext docContext = JsonPath.parse(res.getBody());
+        JSONArray statuses = docContext.read("$[*].status");
+        assertThat(statuses).containsExactly(201, 204, 204, 404);
+
+        ResponseEntity<String> listRes = restTemplate
+                .exchange("/cashcards", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        JSONArray amounts = JsonPath.parse(listRes.getBody()).read("$..amount");
+        assertThat(amounts).containsExactly(42.0, 50.0, 150.00);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldImportCsvAndReportRejectedRows() {
+        String csv = """
+                amount
+                12.50
+                not-a-number
+                0.015
+                7
+                """;
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("kumar2");
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/import", HttpMethod.POST, new HttpEntity<>(csv, headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext docContext = JsonPath.parse(res.getBody());
+        Number imported = docContext.read("$.imported");
+        assertThat(imported).isEqualTo(2);
+        JSONArray errorLines = docContext.read("$.errors[*].line");
+        assertThat(errorLines).containsExactly(3, 4);
+
+        ResponseEntity<String> summaryRes = restTemplate
+                .exchange("/cashcards/summary", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        DocumentContext summary = JsonPath.parse(summaryRes.getBody());
+        Number cardCount = summary.read("$.cardCount");
+        assertThat(cardCount).isEqualTo(3);
+        double total = summary.read("$.total");
+        assertThat(total).isEqualTo(219.50);
+    }
+
+    @Test
+    void shouldReturnSummaryOfOwnCashCards() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/summary", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext docContext = JsonPath.parse(res.getBody());
+        Number cardCount = docContext.read("$.cardCount");
+        assertThat(cardCount).isEqualTo(3);
+        double total = docContext.read("$.total");
+        assertThat(total).isEqualTo(274.45);
+        double minAmount = docContext.read("$.minAmount");
+        assertThat(minAmount).isEqualTo(1.00);
+        double maxAmount = docContext.read("$.maxAmount");
+        assertThat(maxAmount).isEqualTo(150.00);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldKeepSummaryInStepWithWrites() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        restTemplate.exchange("/cashcards", HttpMethod.POST,
+                new HttpEntity<>(new CashCard(null, 50000, "sarah1"), headers), Void.class);
+        restTemplate.exchange("/cashcards/100", HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/summary", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        DocumentContext docContext = JsonPath.parse(res.getBody());
+        Number cardCount = docContext.read("$.cardCount");
+        assertThat(cardCount).isEqualTo(3);
+        double minAmount = docContext.read("$.minAmount");
+        assertThat(minAmount).isEqualTo(123.45);
+        double maxAmount = docContext.read("$.maxAmount");
+        assertThat(maxAmount).isEqualTo(500.00);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldKeepSummaryMinAndMaxCorrectUnderConcurrentWrites() throws Exception {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("kumar2");
+        List<Callable<HttpStatusCode>> creates = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            CashCard payload = new CashCard(null, 30000 + i * 100, "kumar2");
+            creates.add(() -> restTemplate
+                    .exchange("/cashcards", HttpMethod.POST, new HttpEntity<>(payload, headers), Void.class)
+                    .getStatusCode());
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(20)) {
+            for (Future<HttpStatusCode> status : executor.invokeAll(creates)) {
+                assertThat(status.get()).isEqualTo(HttpStatus.CREATED);
+            }
+        }
+
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/summary", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        DocumentContext docContext = JsonPath.parse(res.getBody());
+        Number cardCount = docContext.read("$.cardCount");
+        assertThat(cardCount).isEqualTo(21);
+        double minAmount = docContext.read("$.minAmount");
+        assertThat(minAmount).isEqualTo(200.00);
+        double maxAmount = docContext.read("$.maxAmount");
+        assertThat(maxAmount).isEqualTo(319.00);
+    }
+
     @Test
     @DirtiesContext
     void shouldUpdateAnExistingCashCard() {
-        CashCard payload = new CashCard(null, 120.00, "sarah1");
+        CashCard payload = new CashCard(null, 12000, "sarah1");
         HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
         HttpEntity<CashCard> request = new HttpEntity<>(payload, headers);
         ResponseEntity<Void> putRes = restTemplate
@@ -168,9 +426,95 @@ class CashCardApplicationTests {
         assertThat(amount).isEqualTo(120.00);
     }
 
+    @Test
+    @DirtiesContext
+    void shouldNotServeStaleCashCardAfterUpdate() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        restTemplate.exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        CashCard payload = new CashCard(null, 7700, "sarah1");
+        restTemplate.exchange("/cashcards/99", HttpMethod.PUT, new HttpEntity<>(payload, headers), Void.class);
+
+        ResponseEntity<String> getRes = restTemplate
+                .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        double amount = JsonPath.parse(getRes.getBody()).read("$.amount");
+        assertThat(amount).isEqualTo(77.00);
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenCashCardMatchesETag() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> first = restTemplate
+                .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        String eTag = first.getHeaders().getETag();
+        assertThat(eTag).isNotNull();
+
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> res = restTemplate
+                .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(res.getBody()).isNull();
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldRejectUpdateWithStaleETag() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        String eTag = restTemplate
+                .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getHeaders().getETag();
+
+        headers.setIfMatch(eTag);
+        ResponseEntity<Void> first = restTemplate.exchange("/cashcards/99", HttpMethod.PUT,
+                new HttpEntity<>(new CashCard(null, 5000, "sarah1"), headers), Void.class);
+        ResponseEntity<Void> second = restTemplate.exchange("/cashcards/99", HttpMethod.PUT,
+                new HttpEntity<>(new CashCard(null, 6000, "sarah1"), headers), Void.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void shouldRejectWildcardIfMatchForNonExistingCashCard() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        headers.setIfMatch("*");
+        ResponseEntity<Void> update = restTemplate.exchange("/cashcards/99999", HttpMethod.PUT,
+                new HttpEntity<>(new CashCard(null, 1500, "sarah1"), headers), Void.class);
+        ResponseEntity<Void> delete = restTemplate.exchange("/cashcards/99999", HttpMethod.DELETE,
+                new HttpEntity<>(headers), Void.class);
+
+        assertThat(update.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(delete.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldAdjustBalanceAndRefuseOverdraft() {
+        HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+        ResponseEntity<String> debit = restTemplate.exchange("/cashcards/99/adjustments", HttpMethod.POST,
+                new HttpEntity<>(new CashCardAdjustment(-2345L), headers), String.class);
+
+        assertThat(debit.getStatusCode()).isEqualTo(HttpStatus.OK);
+        double amount = JsonPath.parse(debit.getBody()).read("$.amount");
+        assertThat(amount).isEqualTo(100.00);
+
+        ResponseEntity<String> overdraft = restTemplate.exchange("/cashcards/99/adjustments", HttpMethod.POST,
+                new HttpEntity<>(new CashCardAdjustment(-10001L), headers), String.class);
+        assertThat(overdraft.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        ResponseEntity<String> notOwned = restTemplate.exchange("/cashcards/102/adjustments", HttpMethod.POST,
+                new HttpEntity<>(new CashCardAdjustment(100L), headers), String.class);
+        assertThat(notOwned.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        ResponseEntity<String> outOfBounds = restTemplate.exchange("/cashcards/99/adjustments", HttpMethod.POST,
+                new HttpEntity<>(new CashCardAdjustment(Long.MAX_VALUE), headers), String.class);
+        assertThat(outOfBounds.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void shouldReturnNotFoundWhenUpdateNonExistingCashCard() {
-        CashCard payload = new CashCard(null, 15.00, "sarah1");
+        CashCard payload = new CashCard(null, 1500, "sarah1");
         HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
         HttpEntity<CashCard> request = new HttpEntity<>(payload, headers);
         ResponseEntity<Void> res = restTemplate
@@ -180,7 +524,7 @@ class CashCardApplicationTests {
 
     @Test
     void shouldReturnNotFoundWhenUpdateCashCardThatUserDoesNotOwn() {
-        CashCard payload = new CashCard(null, 15.00, "sarah1");
+        CashCard payload = new CashCard(null, 1500, "sarah1");
         HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
         HttpEntity<CashCard> request = new HttpEntity<>(payload, headers);
         ResponseEntity<Void> res = restTemplate
@@ -243,4 +587,23 @@ class CashCardApplicationTests {
 
         assertThat(res.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
+
+    @Test
+    @ServletOnly
+    void shouldExposePrometheusMetricsOnlyOnTheManagementPort() {
+        restTemplate.exchange("/cashcards/99", HttpMethod.GET,
+                new HttpEntity<>(createJwtBearerAuthenticationHeader("sarah1")), String.class);
+
+        ResponseEntity<String> publicRes = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        assertThat(publicRes.getStatusCode()).isNotEqualTo(HttpStatus.OK);
+
+        ResponseEntity<String> res = restTemplate
+                .getForEntity("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getBody())
+                .contains("http_server_requests_seconds")
+                .contains("spring_data_repository_invocations_seconds")
+                .contains("cashcard_jwt_decode_seconds");
+    }
 }
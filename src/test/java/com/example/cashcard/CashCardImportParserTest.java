@@ -0,0 +1,26 @@
+package com.example.cashcard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CashCardImportParserTest {
+    @Test
+    void shouldSplitPlainFields() {
+        assertThat(CashCardImportParser.splitCsv("12.50,groceries,")).containsExactly("12.50", "groceries", "");
+    }
+
+    @Test
+    void shouldKeepCommasAndDoubledQuotesInsideQuotedFields() {
+        assertThat(CashCardImportParser.splitCsv("\"rent, March\",\"say \"\"hi\"\"\", \"7.00\" "))
+                .containsExactly("rent, March", "say \"hi\"", "7.00");
+    }
+
+    @Test
+    void shouldRejectMalformedQuoting() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CashCardImportParser.splitCsv("\"12.50,x"));
+        assertThatIllegalArgumentException().isThrownBy(() -> CashCardImportParser.splitCsv("\"12\".50,x"));
+        assertThatIllegalArgumentException().isThrownBy(() -> CashCardImportParser.splitCsv("12\"50,x"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.cashcard;
 
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JsonTest
 public class CashCardJsonTest {
@@ -25,15 +27,15 @@ public class CashCardJsonTest {
     @BeforeEach
     void setUp() {
         cashCards = Arrays.asList(
-                new CashCard(99L, 123.45, "sarah1"),
-                new CashCard(100L, 1.00, "sarah1"),
-                new CashCard(101L, 150.00, "sarah1")
+                new CashCard(99L, 12345, "sarah1"),
+                new CashCard(100L, 100, "sarah1"),
+                new CashCard(101L, 15000, "sarah1")
         );
     }
 
     @Test
     void cashCardSerializationTest() throws IOException {
-        CashCard cashCard = new CashCard(99L, 123.45, "sarah1");
+        CashCard cashCard = new CashCard(99L, 12345, "sarah1");
         assertThat(json.write(cashCard)).isStrictlyEqualToJson("single.json");
         assertThat(json.write(cashCard)).hasJsonPathNumberValue("@.id");
         assertThat(json.write(cashCard)).extractingJsonPathNumberValue("@.id").isEqualTo(99);
@@ -50,9 +52,21 @@ public class CashCardJsonTest {
                     "owner": "sarah1"
                 }
                 """;
-        assertThat(json.parse(expected)).isEqualTo(new CashCard(1000L, 67.89, "sarah1"));
+        assertThat(json.parse(expected)).isEqualTo(new CashCard(1000L, 6789, "sarah1"));
         assertThat(json.parseObject(expected).getId()).isEqualTo(1000);
-        assertThat(json.parseObject(expected).getAmount()).isEqualTo(67.89);
+        assertThat(json.parseObject(expected).getAmount()).isEqualTo(6789);
+    }
+
+    @Test
+    void cashCardAmountWithSubCentPrecisionIsRejectedTest() {
+        String expected = """
+                {
+                    "id": 1000,
+                    "amount": 67.891,
+                    "owner": "sarah1"
+                }
+                """;
+        assertThatThrownBy(() -> json.parse(expected)).isInstanceOf(InvalidFormatException.class);
     }
 
     @Test
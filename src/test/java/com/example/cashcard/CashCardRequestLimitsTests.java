@@ -0,0 +1,86 @@
+package com.example.cashcard;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives the rate limiter and the load shedder through the security filter chain, each switched on in its own context.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestContainersConfiguration.class)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Sql(scripts = "insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class CashCardRequestLimitsTests {
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TestJwtCreator jwtCreator;
+
+    @LocalManagementPort
+    int managementPort;
+
+    HttpHeaders createJwtBearerAuthenticationHeader(String username) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer " + jwtCreator.create(username));
+        return headers;
+    }
+
+    @Nested
+    @TestPropertySource(properties = {
+            "cashcard.rate-limit.enabled=true",
+            "cashcard.rate-limit.requests-per-second=0.1",
+            "cashcard.rate-limit.burst=1"
+    })
+    class RateLimit {
+        @Test
+        void shouldAnswerTooManyRequestsWithRetryAfterOnceTheOwnerExceedsTheRate() {
+            HttpHeaders headers = createJwtBearerAuthenticationHeader("sarah1");
+            ResponseEntity<String> first = restTemplate
+                    .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            ResponseEntity<String> second = restTemplate
+                    .exchange("/cashcards/99", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            ResponseEntity<String> otherOwner = restTemplate.exchange("/cashcards/102", HttpMethod.GET,
+                    new HttpEntity<>(createJwtBearerAuthenticationHeader("kumar2")), String.class);
+
+            assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(second.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+            assertThat(Long.parseLong(second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isPositive();
+            assertThat(otherOwner.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    // A negative threshold counts the pool as saturated even with no thread waiting, so every request is shed.
+    @Nested
+    @TestPropertySource(properties = {
+            "cashcard.load-shedding.enabled=true",
+            "cashcard.load-shedding.max-pending-connections=-1"
+    })
+    class LoadShedding {
+        @Test
+        void shouldShedApiRequestsWithRetryAfterButKeepActuatorAnswering() {
+            ResponseEntity<String> res = restTemplate.exchange("/cashcards/99", HttpMethod.GET,
+                    new HttpEntity<>(createJwtBearerAuthenticationHeader("sarah1")), String.class);
+
+            assertThat(res.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(res.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+            ResponseEntity<String> health = restTemplate
+                    .getForEntity("http://localhost:" + managementPort + "/actuator/health", String.class);
+            assertThat(health.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+}
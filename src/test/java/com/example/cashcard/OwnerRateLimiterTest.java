@@ -0,0 +1,56 @@
+package com.example.cashcard;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerRateLimiterTest {
+    private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    void shouldAdmitBurstThenRejectWithRetryAfter() {
+        OwnerRateLimiter limiter = new OwnerRateLimiter(10, 3, clock);
+
+        assertThat(limiter.acquire("sarah1")).isZero();
+        assertThat(limiter.acquire("sarah1")).isZero();
+        assertThat(limiter.acquire("sarah1")).isZero();
+
+        Duration wait = limiter.acquire("sarah1");
+        assertThat(wait).isEqualTo(Duration.ofMillis(100));
+
+        now = now.plus(wait);
+        assertThat(limiter.acquire("sarah1")).isZero();
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerOwner() {
+        OwnerRateLimiter limiter = new OwnerRateLimiter(1, 1, clock);
+
+        assertThat(limiter.acquire("sarah1")).isZero();
+        assertThat(limiter.acquire("sarah1")).isPositive();
+        assertThat(limiter.acquire("kumar2")).isZero();
+    }
+}
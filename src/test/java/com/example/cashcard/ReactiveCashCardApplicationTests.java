@@ -0,0 +1,10 @@
+package com.example.cashcard;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+// Runs every integration test against the WebFlux and R2DBC stack.
+@ActiveProfiles("reactive")
+@Import(TestContainersConfiguration.class)
+class ReactiveCashCardApplicationTests extends CashCardApplicationTests {
+}
@@ -0,0 +1,21 @@
+package com.example.cashcard;
+
+import org.springframework.test.context.junit.jupiter.DisabledIf;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test covering an endpoint or metric that only the servlet stack provides.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@DisabledIf(
+        expression = "#{environment.matchesProfiles('reactive')}",
+        reason = "not provided by the reactive stack",
+        loadContext = true
+)
+@interface ServletOnly {
+}
@@ -1,3 +1,13 @@
 DELETE
 FROM cash_card
-WHERE id IN (99, 100, 101, 102);
\ No newline at end of file
+WHERE id IN (99, 100, 101, 102)
+   OR owner IN ('sarah1', 'kumar2');
+DELETE
+FROM cash_card_summary
+WHERE owner IN ('sarah1', 'kumar2');
+DELETE
+FROM idempotency_key
+WHERE owner IN ('sarah1', 'kumar2');
+DELETE
+FROM cash_card_event
+WHERE owner IN ('sarah1', 'kumar2');
\ No newline at end of file
@@ -1,8 +1,12 @@
 INSERT INTO cash_card(id, amount, owner)
-VALUES (99, 123.45, 'sarah1');
+VALUES (99, 12345, 'sarah1');
 INSERT INTO cash_card(id, amount, owner)
-VALUES (100, 1.00, 'sarah1');
+VALUES (100, 100, 'sarah1');
 INSERT INTO cash_card(id, amount, owner)
-VALUES (101, 150.00, 'sarah1');
+VALUES (101, 15000, 'sarah1');
 INSERT INTO cash_card(id, amount, owner)
-VALUES (102, 200.00, 'kumar2');
\ No newline at end of file
+VALUES (102, 20000, 'kumar2');
+INSERT INTO cash_card_summary(owner, total, card_count, min_amount, max_amount)
+VALUES ('sarah1', 27445, 3, 100, 15000);
+INSERT INTO cash_card_summary(owner, total, card_count, min_amount, max_amount)
+VALUES ('kumar2', 20000, 1, 20000, 20000);
\ No newline at end of file